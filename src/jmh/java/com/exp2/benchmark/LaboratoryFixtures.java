@@ -0,0 +1,49 @@
+package com.exp2.benchmark;
+
+import com.exp2.model.Laboratory;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Datos de ejemplo compartidos por los benchmarks.
+ */
+final class LaboratoryFixtures {
+
+    static final List<String> SPECIALTIES = List.of("Bioquímica", "Microbiología", "Hematología", "Genética",
+            "Inmunología", "Toxicología", "Patología", "Virología");
+
+    private LaboratoryFixtures() {
+    }
+
+    /**
+     * Crea un laboratorio válido y determinista para el índice indicado.
+     *
+     * @param index Índice del laboratorio.
+     * @return Laboratorio sin ID.
+     */
+    static Laboratory laboratory(int index) {
+        Laboratory laboratory = new Laboratory();
+        laboratory.setName(String.format("Laboratorio Clínico %05d", index));
+        laboratory.setAddress("Av. Libertador Bernardo O'Higgins " + (100 + index) + ", Santiago");
+        laboratory.setPhone("+5622" + String.format("%07d", index));
+        laboratory.setEmail("contacto" + index + "@laboratorio.cl");
+        laboratory.setWebsite("https://laboratorio" + index + ".cl");
+        laboratory.setSpecialty(SPECIALTIES.get(index % SPECIALTIES.size()));
+        return laboratory;
+    }
+
+    /**
+     * Crea una lista de laboratorios válidos con IDs consecutivos.
+     *
+     * @param count Cantidad de laboratorios.
+     * @return Laboratorios con ID y versión asignados.
+     */
+    static List<Laboratory> laboratories(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            Laboratory laboratory = laboratory(i);
+            laboratory.setId(i + 1L);
+            laboratory.setVersion(0L);
+            return laboratory;
+        }).toList();
+    }
+}
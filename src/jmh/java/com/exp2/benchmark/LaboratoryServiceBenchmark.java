@@ -0,0 +1,146 @@
+package com.exp2.benchmark;
+
+import com.exp2.Application;
+import com.exp2.dto.LaboratoryBatchResult;
+import com.exp2.dto.LaboratoryField;
+import com.exp2.dto.LaboratoryNameView;
+import com.exp2.dto.LaboratoryPage;
+import com.exp2.dto.SearchResultPage;
+import com.exp2.model.Laboratory;
+import com.exp2.repository.LaboratoryRepository;
+import com.exp2.service.LaboratoryImportService;
+import com.exp2.service.LaboratoryService;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Rutas de consulta de {@link LaboratoryService} contra una base H2 en
+ * memoria (modo Oracle) que reemplaza a la base real.
+ * El contexto de Spring se levanta sin servidor web y se carga con
+ * {@code laboratories} registros mediante la carga masiva, que mantiene
+ * sincronizados los índices en memoria; la caché puede desactivarse
+ * con el parámetro {@code cacheEnabled} para medir el costo de la consulta a
+ * la base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LaboratoryServiceBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final Set<LaboratoryField> SUMMARY_FIELDS = EnumSet.of(LaboratoryField.ID,
+            LaboratoryField.NAME, LaboratoryField.SPECIALTY);
+
+    @Param({ "10000" })
+    private int laboratories;
+
+    @Param({ "true", "false" })
+    private boolean cacheEnabled;
+
+    private ConfigurableApplicationContext context;
+    private LaboratoryService laboratoryService;
+    private List<Long> ids;
+    private List<Long> batchIds;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=Oracle;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.threads.virtual.enabled=false",
+                        "--laboratory.cache.enabled=" + cacheEnabled,
+                        "--logging.level.root=WARN",
+                        "--logging.level.hibernate=WARN",
+                        "--logging.level.org.springframework=WARN",
+                        "--logging.level.org.springdoc=WARN");
+        context.getBean(LaboratoryImportService.class).importLaboratories(
+                IntStream.range(0, laboratories).mapToObj(LaboratoryFixtures::laboratory).iterator(), false);
+        laboratoryService = context.getBean(LaboratoryService.class);
+        ids = context.getBean(LaboratoryRepository.class).findAll().stream().map(Laboratory::getId).toList();
+        batchIds = ids.subList(0, BATCH_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Laboratory> getById() {
+        return laboratoryService.getLaboratoryById(randomId());
+    }
+
+    @Benchmark
+    public LaboratoryBatchResult getByIds() {
+        return laboratoryService.getLaboratoriesByIds(batchIds);
+    }
+
+    @Benchmark
+    public LaboratoryPage<Laboratory> firstPage() {
+        return laboratoryService.getLaboratoriesPage(null, 20, null, null);
+    }
+
+    @Benchmark
+    public LaboratoryPage<Map<String, Object>> firstPageSummaryFields() {
+        return laboratoryService.getLaboratoriesPage(null, 20, null, null, SUMMARY_FIELDS);
+    }
+
+    @Benchmark
+    public List<Laboratory> findBySpecialty() {
+        return laboratoryService.findBySpecialty(LaboratoryFixtures.SPECIALTIES.get(
+                ThreadLocalRandom.current().nextInt(LaboratoryFixtures.SPECIALTIES.size())));
+    }
+
+    @Benchmark
+    public List<Laboratory> findByName() {
+        return laboratoryService.findByName(String.format("%05d", randomIndex()), 20);
+    }
+
+    @Benchmark
+    public List<LaboratoryNameView> autocomplete() {
+        return laboratoryService.autocomplete("Laboratorio Clínico 0" + randomIndex() % 10, 10);
+    }
+
+    @Benchmark
+    public SearchResultPage<Laboratory> search() {
+        return laboratoryService.search("clinico microbiologia santiago", 0, 20);
+    }
+
+    private long randomId() {
+        return ids.get(randomIndex());
+    }
+
+    private int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(laboratories);
+    }
+}
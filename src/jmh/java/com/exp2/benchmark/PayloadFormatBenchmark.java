@@ -0,0 +1,123 @@
+package com.exp2.benchmark;
+
+import com.exp2.model.Laboratory;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compara JSON, CBOR y Smile al serializar y deserializar listas de
+ * laboratorios, sin comprimir y con gzip (como las respuestas de más de 2 KB).
+ * El tamaño del cuerpo de cada formato lo informa {@link #payloadSize} como
+ * contadores auxiliares de JMH ({@code payloadSize:bytes} y
+ * {@code payloadSize:gzipBytes}), por lo que queda en {@code jmh-result.json}
+ * como resultado secundario para cada combinación de parámetros.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    @Param({ "json", "cbor", "smile" })
+    private String format;
+
+    @Param({ "20", "100", "1000", "10000" })
+    private int listSize;
+
+    private ObjectWriter listWriter;
+    private ObjectReader listReader;
+    private List<Laboratory> laboratories;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper(factory(format)).findAndRegisterModules();
+        JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, Laboratory.class);
+        listWriter = objectMapper.writerFor(listType);
+        listReader = objectMapper.readerFor(listType);
+        laboratories = LaboratoryFixtures.laboratories(listSize);
+        payload = listWriter.writeValueAsBytes(laboratories);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        return listWriter.writeValueAsBytes(laboratories);
+    }
+
+    @Benchmark
+    public byte[] serializeListGzip() throws IOException {
+        return gzip(listWriter.writeValueAsBytes(laboratories));
+    }
+
+    /**
+     * Serializa la lista una sola vez para informar su tamaño. JMH suma los
+     * contadores de tipo {@code EVENTS} de todas las iteraciones, por lo que
+     * se mide una única iteración de una invocación; su tiempo no es
+     * representativo.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public void payloadSize(PayloadSize size) throws IOException {
+        byte[] bytes = listWriter.writeValueAsBytes(laboratories);
+        size.bytes = bytes.length;
+        size.gzipBytes = gzip(bytes).length;
+    }
+
+    @Benchmark
+    public List<Laboratory> deserializeList() throws IOException {
+        return listReader.readValue(payload);
+    }
+
+    /**
+     * Tamaño en bytes del cuerpo serializado, sin comprimir y con gzip.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        public long bytes;
+        public long gzipBytes;
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,71 @@
+package com.exp2.benchmark;
+
+import com.exp2.model.Laboratory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Costo de serializar y deserializar laboratorios con Jackson, para un
+ * laboratorio individual y para listas como las de las búsquedas y la
+ * exportación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "100", "10000" })
+    private int listSize;
+
+    private ObjectWriter laboratoryWriter;
+    private ObjectWriter listWriter;
+    private ObjectReader laboratoryReader;
+    private Laboratory laboratory;
+    private List<Laboratory> laboratories;
+    private byte[] laboratoryJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        laboratoryWriter = objectMapper.writerFor(Laboratory.class);
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, Laboratory.class));
+        laboratoryReader = objectMapper.readerFor(Laboratory.class);
+        laboratories = LaboratoryFixtures.laboratories(listSize);
+        laboratory = laboratories.get(0);
+        laboratoryJson = laboratoryWriter.writeValueAsBytes(laboratory);
+    }
+
+    @Benchmark
+    public byte[] serializeLaboratory() throws IOException {
+        return laboratoryWriter.writeValueAsBytes(laboratory);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        return listWriter.writeValueAsBytes(laboratories);
+    }
+
+    @Benchmark
+    public Laboratory deserializeLaboratory() throws IOException {
+        return laboratoryReader.readValue(laboratoryJson);
+    }
+}
@@ -0,0 +1,152 @@
+package com.exp2.benchmark;
+
+import com.exp2.config.GatedDataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Compara la atención de ráfagas de peticiones con el pool de hilos de
+ * plataforma de Tomcat (200 hilos) y con un hilo virtual por petición.
+ * Cada petición que accede a la base de datos pasa por un
+ * {@link GatedDataSource} de 10 permisos (el tamaño del pool Hikari) y retiene
+ * la conexión durante {@code queryMillis}, simulando la latencia de la
+ * consulta. Las peticiones "cacheadas" no usan la base de datos.
+ * <ul>
+ * <li>{@link #dbBurst()} mide cuánto tarda en completarse toda la ráfaga: en
+ * ambos modelos el límite es el pool de conexiones, no los hilos.</li>
+ * <li>{@link #cachedRequestsDuringDbBurst()} mide cuánto tardan peticiones
+ * que no usan la base de datos mientras la ráfaga está en curso: con hilos de
+ * plataforma esperan a que se libere alguno de los 200 hilos; con hilos
+ * virtuales se atienden de inmediato.</li>
+ * </ul>
+ * Ejecutar con {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ThreadModelBenchmark {
+
+    private static final int POOL_SIZE = 10;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int CACHED_REQUESTS = 100;
+
+    @Param({ "platform", "virtual" })
+    private String threads;
+
+    @Param({ "1000", "5000" })
+    private int concurrentRequests;
+
+    @Param({ "2" })
+    private long queryMillis;
+
+    private ExecutorService executor;
+    private GatedDataSource dataSource;
+    private List<Future<?>> pending;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        dataSource = new GatedDataSource(new SimulatedDataSource(), "simulated", POOL_SIZE, Duration.ofMinutes(10));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @TearDown(Level.Invocation)
+    public void drainPending() throws InterruptedException, ExecutionException {
+        if (pending != null) {
+            awaitAll(pending);
+            pending = null;
+        }
+    }
+
+    @Benchmark
+    public int dbBurst() throws InterruptedException, ExecutionException {
+        return awaitAll(submitDbRequests());
+    }
+
+    @Benchmark
+    public int cachedRequestsDuringDbBurst() throws InterruptedException, ExecutionException {
+        pending = submitDbRequests();
+        List<Future<?>> cached = new ArrayList<>(CACHED_REQUESTS);
+        for (int i = 0; i < CACHED_REQUESTS; i++) {
+            cached.add(executor.submit(() -> 1));
+        }
+        return awaitAll(cached);
+    }
+
+    private List<Future<?>> submitDbRequests() {
+        List<Future<?>> futures = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            futures.add(executor.submit(this::queryDatabase));
+        }
+        return futures;
+    }
+
+    private int queryDatabase() throws SQLException, InterruptedException {
+        try (Connection connection = dataSource.getConnection()) {
+            Thread.sleep(queryMillis);
+            return connection.hashCode();
+        }
+    }
+
+    private static int awaitAll(List<Future<?>> futures) throws InterruptedException, ExecutionException {
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return futures.size();
+    }
+
+    /**
+     * DataSource sin base de datos real: entrega conexiones cuyo cierre no
+     * hace nada.
+     */
+    private static final class SimulatedDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> switch (method.getName()) {
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        case "isClosed" -> false;
+                        default -> null;
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.exp2.benchmark;
+
+import com.exp2.model.Laboratory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Costo de Bean Validation sobre {@link Laboratory}: la entidad completa
+ * (válida e inválida) y las restricciones de teléfono ({@code @Pattern}) y
+ * correo ({@code @Email}) por separado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private Laboratory valid;
+    private Laboratory invalid;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        valid = LaboratoryFixtures.laboratory(1);
+        invalid = LaboratoryFixtures.laboratory(2);
+        invalid.setPhone("12-34");
+        invalid.setEmail("sin-arroba");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Laboratory>> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Laboratory>> validateInvalid() {
+        return validator.validate(invalid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Laboratory>> validatePhone() {
+        return validator.validateProperty(valid, "phone");
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Laboratory>> validateEmail() {
+        return validator.validateProperty(valid, "email");
+    }
+}
@@ -0,0 +1,367 @@
+package com.exp2.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generador de carga HTTP para la API de laboratorios.
+ * Mantiene {@code --concurrency} clientes en lazo cerrado (cada uno envía la
+ * siguiente petición al recibir la respuesta anterior) durante
+ * {@code --duration} segundos, eligiendo cada operación según los pesos de
+ * {@code --mix}. Las mediciones del período de {@code --warmup} se descartan.
+ * Al terminar informa, por operación, throughput, errores y percentiles de
+ * latencia.
+ * Solo depende del JDK, por lo que puede ejecutarse directamente:
+ *
+ * <pre>
+ * java src/jmh/java/com/exp2/loadtest/LoadDriver.java --url=http://localhost:8082 --concurrency=64
+ * </pre>
+ *
+ * Opciones (con sus valores por defecto): {@code --url=http://localhost:8082},
+ * {@code --concurrency=32}, {@code --duration=60}, {@code --warmup=10},
+ * {@code --mix=get:40,page:10,specialty:5,name:10,autocomplete:10,search:15,create:5,update:4,delete:1}.
+ */
+public final class LoadDriver {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final Pattern NAME = Pattern.compile("\"name\":\"([^\"]*)\"");
+    private static final Pattern SPECIALTY = Pattern.compile("\"specialty\":\"([^\"]*)\"");
+    private static final Pattern NEXT_CURSOR = Pattern.compile("\"nextCursor\":\"([^\"]+)\"");
+    private static final int DISCOVERY_LIMIT = 5000;
+    private static final String DEFAULT_MIX =
+            "get:40,page:10,specialty:5,name:10,autocomplete:10,search:15,create:5,update:4,delete:1";
+
+    /**
+     * Operaciones que el generador puede ejecutar.
+     */
+    enum Operation {
+        GET, PAGE, SPECIALTY, NAME, AUTOCOMPLETE, SEARCH, CREATE, UPDATE, DELETE
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final Operation[] schedule;
+    private final List<Long> seededIds = new ArrayList<>();
+    private final Set<Long> createdIds = ConcurrentHashMap.newKeySet();
+    private final List<String> words = new ArrayList<>();
+    private final List<String> specialties = new ArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private LoadDriver(String baseUrl, Map<Operation, Integer> mix) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        List<Operation> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla de operaciones no puede estar vacía");
+        }
+        this.schedule = weighted.toArray(Operation[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        LoadDriver driver = new LoadDriver(options.getOrDefault("url", "http://localhost:8082"),
+                parseMix(options.getOrDefault("mix", DEFAULT_MIX)));
+        driver.discover();
+        System.out.printf("Datos: %d laboratorios, %d especialidades. Concurrencia %d, calentamiento %d s, "
+                + "medición %d s%n", driver.seededIds.size(), driver.specialties.size(), concurrency, warmup, duration);
+        driver.run(concurrency, Duration.ofSeconds(warmup), Duration.ofSeconds(duration)).print(System.out);
+    }
+
+    /**
+     * Recorre las primeras páginas del listado para obtener IDs, nombres y
+     * especialidades reales con los que construir las peticiones.
+     */
+    private void discover() throws IOException, InterruptedException {
+        Set<String> wordSet = new LinkedHashSet<>();
+        Set<String> specialtySet = new LinkedHashSet<>();
+        String cursor = null;
+        do {
+            String url = "/api/laboratories?size=100" + (cursor == null ? "" : "&cursor=" + cursor);
+            HttpResponse<String> response = client.send(get(url), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("No se pudo leer el listado: HTTP " + response.statusCode());
+            }
+            String body = response.body();
+            ID.matcher(body).results().forEach(match -> seededIds.add(Long.parseLong(match.group(1))));
+            NAME.matcher(body).results()
+                    .flatMap(match -> Arrays.stream(match.group(1).split("\\s+")))
+                    .filter(word -> word.length() >= 4 && !word.chars().allMatch(Character::isDigit))
+                    .forEach(wordSet::add);
+            SPECIALTY.matcher(body).results().forEach(match -> specialtySet.add(match.group(1)));
+            Matcher next = NEXT_CURSOR.matcher(body);
+            cursor = next.find() ? next.group(1) : null;
+        } while (cursor != null && seededIds.size() < DISCOVERY_LIMIT);
+        if (seededIds.isEmpty()) {
+            throw new IllegalStateException("La API no tiene laboratorios; inicie el servicio con el perfil loadtest");
+        }
+        words.addAll(wordSet);
+        specialties.addAll(specialtySet);
+    }
+
+    private Report run(int concurrency, Duration warmup, Duration duration) throws Exception {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+        List<Future<Recorder>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> work(measureFrom, deadline)));
+            }
+        }
+        Report report = new Report(duration);
+        for (Future<Recorder> worker : workers) {
+            report.merge(worker.get());
+        }
+        return report;
+    }
+
+    private Recorder work(long measureFrom, long deadline) {
+        Recorder recorder = new Recorder();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            Boolean ok;
+            try {
+                ok = execute(operation, random);
+            } catch (IOException ex) {
+                ok = false;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long end = System.nanoTime();
+            if (ok != null && now >= measureFrom) {
+                recorder.record(operation, end - now, ok);
+            }
+        }
+        return recorder;
+    }
+
+    /**
+     * Ejecuta una operación.
+     *
+     * @return Si la respuesta tuvo el estado esperado, o {@code null} si la
+     *         operación no se pudo ejecutar y no debe registrarse.
+     */
+    private Boolean execute(Operation operation, ThreadLocalRandom random) throws IOException, InterruptedException {
+        return switch (operation) {
+            case GET -> send(get("/api/laboratories/" + randomId(random))) == 200;
+            case PAGE -> send(get("/api/laboratories?size=20")) == 200;
+            case SPECIALTY -> send(get("/api/laboratories/specialty/" + encode(pick(specialties, random)))) == 200;
+            case NAME -> send(get("/api/laboratories/name/" + encode(pick(words, random)) + "?limit=20")) == 200;
+            case AUTOCOMPLETE -> {
+                String word = pick(words, random);
+                yield send(get("/api/laboratories/autocomplete?prefix="
+                        + encode(word.substring(0, Math.min(3, word.length()))))) == 200;
+            }
+            case SEARCH -> send(get("/api/laboratories/search?q="
+                    + encode(pick(words, random) + " " + pick(specialties, random)))) == 200;
+            case CREATE -> create(random);
+            case UPDATE -> {
+                long id = randomId(random);
+                yield send(json("PUT", "/api/laboratories/" + id, laboratoryJson("Carga actualizada " + id, random)))
+                        == 200;
+            }
+            case DELETE -> delete();
+        };
+    }
+
+    private boolean create(ThreadLocalRandom random) throws IOException, InterruptedException {
+        String name = "Carga " + ProcessHandle.current().pid() + "-" + sequence.incrementAndGet();
+        HttpResponse<String> response = client.send(json("POST", "/api/laboratories", laboratoryJson(name, random)),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher id = ID.matcher(response.body());
+        if (response.statusCode() == 200 && id.find()) {
+            createdIds.add(Long.parseLong(id.group(1)));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Elimina solo laboratorios creados por el propio generador, para no
+     * reducir el conjunto de datos inicial.
+     */
+    private Boolean delete() throws IOException, InterruptedException {
+        Long id = createdIds.stream().findAny().orElse(null);
+        if (id == null || !createdIds.remove(id)) {
+            return null;
+        }
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/laboratories/" + id)).DELETE().build()) == 204;
+    }
+
+    private String laboratoryJson(String name, ThreadLocalRandom random) {
+        return "{\"name\":\"" + name + "\",\"address\":\"Av. Carga " + random.nextInt(1, 10_000)
+                + ", Santiago\",\"phone\":\"+569" + random.nextInt(10_000_000, 100_000_000)
+                + "\",\"email\":\"carga@laboratorio.cl\",\"website\":\"https://carga.cl\",\"specialty\":\""
+                + pick(specialties, random) + "\"}";
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private long randomId(ThreadLocalRandom random) {
+        return seededIds.get(random.nextInt(seededIds.size()));
+    }
+
+    private static String pick(List<String> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Opción inválida (se espera --clave=valor): " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Entrada de mezcla inválida (se espera operacion:peso): " + entry);
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    /**
+     * Latencias registradas por un cliente, por operación. Cada cliente tiene
+     * el suyo, por lo que no requiere sincronización.
+     */
+    private static final class Recorder {
+
+        private final Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+        private final Map<Operation, Integer> errors = new EnumMap<>(Operation.class);
+
+        void record(Operation operation, long nanos, boolean ok) {
+            int count = counts.getOrDefault(operation, 0);
+            long[] values = latencies.computeIfAbsent(operation, key -> new long[1024]);
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+                latencies.put(operation, values);
+            }
+            values[count] = nanos;
+            counts.put(operation, count + 1);
+            if (!ok) {
+                errors.merge(operation, 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Resultado agregado de todos los clientes.
+     */
+    private static final class Report {
+
+        private final Duration duration;
+        private final Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Integer> errors = new EnumMap<>(Operation.class);
+
+        Report(Duration duration) {
+            this.duration = duration;
+        }
+
+        void merge(Recorder recorder) {
+            recorder.counts.forEach((operation, count) -> {
+                long[] recorded = Arrays.copyOf(recorder.latencies.get(operation), count);
+                latencies.merge(operation, recorded, Report::concat);
+            });
+            recorder.errors.forEach((operation, count) -> errors.merge(operation, count, Integer::sum));
+        }
+
+        void print(java.io.PrintStream out) {
+            out.printf("%-13s %10s %8s %10s %9s %9s %9s %9s %9s%n", "operación", "peticiones", "errores", "req/s",
+                    "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "máx ms");
+            long[] all = new long[0];
+            int allErrors = 0;
+            for (Map.Entry<Operation, long[]> entry : latencies.entrySet()) {
+                int operationErrors = errors.getOrDefault(entry.getKey(), 0);
+                printRow(out, entry.getKey().name().toLowerCase(Locale.ROOT), entry.getValue(), operationErrors);
+                all = concat(all, entry.getValue());
+                allErrors += operationErrors;
+            }
+            printRow(out, "total", all, allErrors);
+        }
+
+        private void printRow(java.io.PrintStream out, String label, long[] values, int errorCount) {
+            Arrays.sort(values);
+            double seconds = duration.toNanos() / 1e9;
+            out.printf(Locale.ROOT, "%-13s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", label, values.length,
+                    errorCount, values.length / seconds, percentile(values, 0.50), percentile(values, 0.90),
+                    percentile(values, 0.99), percentile(values, 0.999),
+                    values.length == 0 ? 0.0 : values[values.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        private static long[] concat(long[] first, long[] second) {
+            long[] result = Arrays.copyOf(first, first.length + second.length);
+            System.arraycopy(second, 0, result, first.length, second.length);
+            return result;
+        }
+    }
+}
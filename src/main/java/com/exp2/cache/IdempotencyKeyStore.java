@@ -0,0 +1,122 @@
+package com.exp2.cache;
+
+import com.exp2.exception.IdempotencyKeyMismatchException;
+import com.exp2.model.Laboratory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Almacén de claves de idempotencia ({@code Idempotency-Key}) para las altas
+ * de laboratorios.
+ * La primera petición con una clave registra un resultado pendiente y ejecuta
+ * el alta; las repeticiones reciben ese mismo resultado sin acceder a la base
+ * de datos. Si la repetición llega mientras el alta original está en curso,
+ * espera a que termine en lugar de competir con ella. Si el alta falla, la
+ * clave se libera para que el cliente pueda reintentar; las peticiones que
+ * esperaban reciben el mismo error.
+ * Cada clave recuerda los datos de la petición original: reutilizarla con
+ * datos distintos es un error del cliente. Las claves se guardan en una caché
+ * Caffeine acotada por cantidad y con tiempo de vida, y son locales a cada
+ * instancia.
+ */
+@Component
+public class IdempotencyKeyStore {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> entries;
+    private final Counter replays;
+
+    public IdempotencyKeyStore(MeterRegistry meterRegistry,
+            @Value("${laboratory.idempotency.max-keys:100000}") long maxKeys,
+            @Value("${laboratory.idempotency.ttl-minutes:1440}") long ttlMinutes) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+        this.replays = Counter.builder("laboratory.idempotency.replays")
+                .description("Altas repetidas respondidas con el resultado original")
+                .register(meterRegistry);
+        Gauge.builder("laboratory.idempotency.keys", entries, Cache::estimatedSize)
+                .description("Claves de idempotencia almacenadas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta un alta una sola vez por clave.
+     *
+     * @param key     Valor de la cabecera {@code Idempotency-Key}.
+     * @param request Laboratorio recibido en la petición.
+     * @param create  Alta a ejecutar si la clave es nueva.
+     * @return Resultado del alta original, indicando si es una repetición.
+     * @throws IllegalArgumentException        si la clave está vacía o es
+     *                                         demasiado larga.
+     * @throws IdempotencyKeyMismatchException si la clave ya se usó con otros
+     *                                         datos.
+     */
+    public CompletableFuture<Result> execute(String key, Laboratory request,
+            Supplier<CompletableFuture<Laboratory>> create) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "La cabecera Idempotency-Key debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres");
+        }
+        Entry entry = new Entry(fingerprint(request), new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(entry.fingerprint())) {
+                throw new IdempotencyKeyMismatchException(
+                        "La clave de idempotencia ya se usó con datos distintos: " + key);
+            }
+            replays.increment();
+            return existing.result().thenApply(laboratory -> new Result(laboratory.copy(), true));
+        }
+
+        CompletableFuture<Laboratory> created;
+        try {
+            created = create.get();
+        } catch (RuntimeException ex) {
+            created = CompletableFuture.failedFuture(ex);
+        }
+        created.whenComplete((laboratory, ex) -> {
+            if (ex != null) {
+                entries.asMap().remove(key, entry);
+                entry.result().completeExceptionally(ex);
+            } else {
+                entry.result().complete(laboratory.copy());
+            }
+        });
+        return created.thenApply(laboratory -> new Result(laboratory, false));
+    }
+
+    private static List<String> fingerprint(Laboratory laboratory) {
+        return Arrays.asList(laboratory.getName(), laboratory.getAddress(), laboratory.getPhone(),
+                laboratory.getEmail(), laboratory.getWebsite(), laboratory.getSpecialty());
+    }
+
+    /**
+     * Resultado de un alta con clave de idempotencia.
+     *
+     * @param laboratory Laboratorio creado.
+     * @param replayed   {@code true} si es la respuesta de una petición
+     *                   anterior con la misma clave.
+     */
+    public record Result(Laboratory laboratory, boolean replayed) {
+    }
+
+    /**
+     * Datos de la petición original y su resultado, pendiente mientras el
+     * alta está en curso.
+     */
+    private record Entry(List<String> fingerprint, CompletableFuture<Laboratory> result) {
+    }
+}
@@ -0,0 +1,311 @@
+package com.exp2.cache;
+
+import com.exp2.config.ReadWriteRoutingDataSource;
+import com.exp2.event.LaboratoryChangedEvent;
+import com.exp2.model.Laboratory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Caché en memoria de lectura directa (read-through) para las consultas de
+ * laboratorios por ID, especialidad y nombre.
+ * Cada región está acotada por cantidad de entradas y por tiempo de vida. Las
+ * entradas se invalidan de forma precisa al recibir un
+ * {@link LaboratoryChangedEvent}: por ID, por la especialidad anterior y la
+ * nueva, y por las búsquedas de nombre que coinciden con el nombre anterior o
+ * el nuevo. Si el estado anterior no se conoce se invalidan todas las
+ * búsquedas por especialidad y por nombre.
+ * Los laboratorios almacenados son copias desacopladas y se comparten entre
+ * peticiones, por lo que deben tratarse como de solo lectura.
+ * Las cargas por ID, especialidad y nombre pasan por un {@link SingleFlight}
+ * por región: con la caché fría, las peticiones concurrentes por la misma
+ * clave comparten una sola consulta, también con la caché deshabilitada. La
+ * consulta se ejecuta fuera de los bloqueos de la caché, y una invalidación
+ * durante la carga impide que se guarde su resultado. Los cargadores abren su
+ * propia transacción, por lo que quien espera una carga ajena no ocupa una
+ * conexión; las peticiones que leen del primario
+ * ({@link ReadWriteRoutingDataSource#isPrimaryReads()}) no comparten cargas
+ * con las que leen de la réplica.
+ */
+@Component
+public class LaboratoryCache {
+
+    private final boolean enabled;
+    private final Cache<Long, Laboratory> byId;
+    private final Cache<String, List<Laboratory>> bySpecialty;
+    private final Cache<String, List<Laboratory>> byName;
+    private final SingleFlight<Long, Laboratory> idLoads =
+            new SingleFlight<>(ReadWriteRoutingDataSource::isPrimaryReads);
+    private final SingleFlight<String, List<Laboratory>> specialtyLoads =
+            new SingleFlight<>(ReadWriteRoutingDataSource::isPrimaryReads);
+    private final SingleFlight<String, List<Laboratory>> nameLoads =
+            new SingleFlight<>(ReadWriteRoutingDataSource::isPrimaryReads);
+    private final LongAdder invalidations = new LongAdder();
+
+    public LaboratoryCache(MeterRegistry meterRegistry,
+            @Value("${laboratory.cache.enabled:true}") boolean enabled,
+            @Value("${laboratory.cache.maximum-size:10000}") long maximumSize,
+            @Value("${laboratory.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.byId = newCache(maximumSize, ttlSeconds);
+        this.bySpecialty = newCache(maximumSize, ttlSeconds);
+        this.byName = newCache(maximumSize, ttlSeconds);
+        registerLoadMetrics(meterRegistry, "byId", idLoads);
+        registerLoadMetrics(meterRegistry, "bySpecialty", specialtyLoads);
+        registerLoadMetrics(meterRegistry, "byName", nameLoads);
+    }
+
+    private static void registerLoadMetrics(MeterRegistry meterRegistry, String region, SingleFlight<?, ?> loads) {
+        FunctionCounter.builder("laboratory.cache.loads", loads, SingleFlight::loads)
+                .description("Consultas ejecutadas por fallos de la caché")
+                .tag("region", region)
+                .register(meterRegistry);
+        FunctionCounter.builder("laboratory.cache.coalesced", loads, SingleFlight::coalesced)
+                .description("Fallos de la caché que esperaron una consulta en curso en lugar de repetirla")
+                .tag("region", region)
+                .register(meterRegistry);
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maximumSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene un laboratorio por ID desde la caché o, si no está, desde el
+     * cargador indicado. Los IDs inexistentes no se almacenan.
+     *
+     * @param id     ID del laboratorio.
+     * @param loader Función que consulta la base de datos.
+     * @return Un Optional con el laboratorio o vacío si no existe.
+     */
+    public Optional<Laboratory> getById(Long id, Function<Long, Optional<Laboratory>> loader) {
+        Laboratory cached = enabled ? byId.getIfPresent(id) : null;
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return Optional.ofNullable(idLoads.load(id, () -> loader.apply(id).map(Laboratory::copy).orElse(null),
+                laboratory -> {
+                    if (enabled && laboratory != null) {
+                        byId.put(id, laboratory);
+                    }
+                }));
+    }
+
+    /**
+     * Devuelve el laboratorio almacenado en la caché para el ID indicado, sin
+     * consultar la base de datos.
+     *
+     * @param id ID del laboratorio.
+     * @return Un Optional con la copia almacenada o vacío si no está en la
+     *         caché.
+     */
+    public Optional<Laboratory> peekById(long id) {
+        return enabled ? Optional.ofNullable(byId.getIfPresent(id)) : Optional.empty();
+    }
+
+    /**
+     * Obtiene varios laboratorios por ID. Los que no están en la caché se
+     * cargan juntos con una sola llamada al cargador indicado, a través del
+     * mismo {@link SingleFlight} que {@link #getById}: los IDs que otra
+     * petición ya está cargando se esperan en lugar de consultarse, y un ID
+     * invalidado durante la carga no se guarda.
+     *
+     * @param ids    IDs de los laboratorios.
+     * @param loader Función que consulta la base de datos por los IDs
+     *               faltantes y devuelve los encontrados indexados por ID.
+     * @return Laboratorios encontrados indexados por ID; los IDs inexistentes
+     *         no aparecen en el resultado.
+     */
+    public Map<Long, Laboratory> getAllById(Collection<Long> ids, Function<Set<Long>, Map<Long, Laboratory>> loader) {
+        Map<Long, Laboratory> found = new LinkedHashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Laboratory cached = enabled ? byId.getIfPresent(id) : null;
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+        Map<Long, Laboratory> loaded = idLoads.loadAll(missing, keys -> {
+            Map<Long, Laboratory> copies = new HashMap<>();
+            loader.apply(keys).forEach((id, laboratory) -> copies.put(id, laboratory.copy()));
+            return copies;
+        }, (id, laboratory) -> {
+            if (enabled && laboratory != null) {
+                byId.put(id, laboratory);
+            }
+        });
+        Map<Long, Laboratory> result = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Laboratory laboratory = found.getOrDefault(id, loaded.get(id));
+            if (laboratory != null) {
+                result.put(id, laboratory);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene los laboratorios de una especialidad desde la caché o desde el
+     * cargador indicado.
+     *
+     * @param specialty Especialidad exacta.
+     * @param loader    Proveedor que consulta la base de datos.
+     * @return Lista inmutable de laboratorios.
+     */
+    public List<Laboratory> getBySpecialty(String specialty, Supplier<List<Laboratory>> loader) {
+        return get(bySpecialty, specialtyLoads, specialty, loader);
+    }
+
+    /**
+     * Obtiene el resultado de una búsqueda parcial por nombre desde la caché o
+     * desde el cargador indicado.
+     *
+     * @param name   Texto buscado.
+     * @param loader Proveedor que consulta la base de datos.
+     * @return Lista inmutable de laboratorios.
+     */
+    public List<Laboratory> getByName(String name, Supplier<List<Laboratory>> loader) {
+        return get(byName, nameLoads, name, loader);
+    }
+
+    private List<Laboratory> get(Cache<String, List<Laboratory>> region, SingleFlight<String, List<Laboratory>> loads,
+            String key, Supplier<List<Laboratory>> loader) {
+        List<Laboratory> cached = enabled ? region.getIfPresent(key) : null;
+        if (cached != null) {
+            return cached;
+        }
+        return loads.load(key, () -> copyOf(loader.get()), laboratories -> {
+            if (enabled) {
+                region.put(key, laboratories);
+            }
+        });
+    }
+
+    /**
+     * Invalida las entradas afectadas por un cambio una vez confirmada la
+     * transacción que lo produjo.
+     *
+     * @param event Evento de cambio del laboratorio.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLaboratoryChanged(LaboratoryChangedEvent event) {
+        // Las cargas en curso se descartan antes que las entradas, para que
+        // una carga que leyó datos anteriores no las vuelva a guardar.
+        idLoads.forget(event.id());
+        byId.invalidate(event.id());
+        invalidations.increment();
+        if (event.previous() == null && event.type() == LaboratoryChangedEvent.ChangeType.UPDATED) {
+            specialtyLoads.forgetAll();
+            nameLoads.forgetAll();
+            bySpecialty.invalidateAll();
+            byName.invalidateAll();
+            return;
+        }
+        invalidateSpecialty(event.previous());
+        invalidateSpecialty(event.current());
+        String previousName = upperName(event.previous());
+        String currentName = upperName(event.current());
+        Predicate<String> affected = query -> {
+            String upperQuery = query.toUpperCase(Locale.ROOT);
+            return (previousName != null && previousName.contains(upperQuery))
+                    || (currentName != null && currentName.contains(upperQuery));
+        };
+        nameLoads.forgetIf(affected);
+        byName.asMap().keySet().removeIf(affected);
+    }
+
+    private void invalidateSpecialty(Laboratory laboratory) {
+        if (laboratory != null && laboratory.getSpecialty() != null) {
+            specialtyLoads.forget(laboratory.getSpecialty());
+            bySpecialty.invalidate(laboratory.getSpecialty());
+        }
+    }
+
+    /**
+     * Devuelve los contadores de aciertos, fallos y desalojos de cada región,
+     * junto con la cantidad de escrituras que provocaron invalidaciones.
+     *
+     * @return Estadísticas de la caché.
+     */
+    public CacheReport stats() {
+        Map<String, RegionStats> regions = new LinkedHashMap<>();
+        regions.put("byId", RegionStats.of(byId.stats(), byId.estimatedSize(), idLoads));
+        regions.put("bySpecialty", RegionStats.of(bySpecialty.stats(), bySpecialty.estimatedSize(),
+                specialtyLoads));
+        regions.put("byName", RegionStats.of(byName.stats(), byName.estimatedSize(), nameLoads));
+        return new CacheReport(enabled, invalidations.sum(), regions);
+    }
+
+    private static String upperName(Laboratory laboratory) {
+        return laboratory == null ? null : Objects.toString(laboratory.getName(), "").toUpperCase(Locale.ROOT);
+    }
+
+    private static List<Laboratory> copyOf(List<Laboratory> laboratories) {
+        return laboratories.stream().map(Laboratory::copy).toList();
+    }
+
+    /**
+     * Estadísticas de la caché de laboratorios.
+     *
+     * @param enabled       Indica si la caché está habilitada.
+     * @param invalidations Cantidad de escrituras que invalidaron entradas.
+     * @param regions       Estadísticas por región.
+     */
+    public record CacheReport(boolean enabled, long invalidations, Map<String, RegionStats> regions) {
+    }
+
+    /**
+     * Estadísticas de una región de la caché.
+     *
+     * @param hits      Cantidad de aciertos.
+     * @param misses    Cantidad de fallos.
+     * @param evictions Cantidad de entradas desalojadas por tamaño o
+     *                  expiración.
+     * @param hitRate   Proporción de aciertos sobre el total de lecturas.
+     * @param size      Cantidad estimada de entradas almacenadas.
+     * @param loads     Cantidad de consultas ejecutadas por fallos.
+     * @param coalesced Cantidad de fallos que compartieron una consulta en
+     *                  curso.
+     */
+    public record RegionStats(long hits, long misses, long evictions, double hitRate, long size, long loads,
+            long coalesced) {
+
+        static RegionStats of(CacheStats stats, long size, SingleFlight<?, ?> loads) {
+            return new RegionStats(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                    stats.hitRate(), size, loads.loads(), loads.coalesced());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.exp2.cache;
+
+import com.exp2.dto.LaboratoryNameView;
+import com.exp2.event.LaboratoryChangedEvent;
+import com.exp2.model.Laboratory;
+import com.exp2.repository.LaboratoryRepository;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Índice en memoria de los nombres de laboratorio existentes, para rechazar
+ * nombres duplicados sin enviar el INSERT a la base de datos.
+ * Las consultas leen un {@link ConcurrentHashMap} sin bloqueos; las
+ * modificaciones, que provienen de los {@link LaboratoryChangedEvent}
+ * confirmados, se serializan entre sí para mantener coherentes el mapa de
+ * nombres y el de IDs. Los nombres se comparan exactamente, igual que la
+ * restricción de unicidad de la tabla.
+ * El índice es una verificación previa: la restricción de la base de datos
+ * sigue siendo la autoridad final ante escrituras concurrentes. Mientras no
+ * está listo, {@link #isTaken(String, long)} responde {@code false} y la base
+ * de datos decide.
+ * Solo se aplican los cambios confirmados por esta instancia. Con varias
+ * instancias, un nombre que otra crea lo detecta la restricción, y un nombre
+ * que otra libera se sigue rechazando aquí hasta que esta instancia reciba un
+ * cambio de ese laboratorio o se reinicie.
+ */
+@Slf4j
+@Component
+public class LaboratoryNameIndex {
+
+    private final LaboratoryRepository laboratoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+    private final Map<Long, String> namesById = new ConcurrentHashMap<>();
+    private final Set<Long> touchedDuringLoad = new HashSet<>();
+    private volatile boolean ready;
+    private boolean loading;
+
+    public LaboratoryNameIndex(LaboratoryRepository laboratoryRepository,
+            PlatformTransactionManager transactionManager) {
+        this.laboratoryRepository = laboratoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Carga todos los nombres de la base de datos. Las escrituras que llegan
+     * durante la carga tienen prioridad sobre los datos leídos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            loading = true;
+        }
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<LaboratoryNameView> names = laboratoryRepository.streamAllNames()) {
+                    Iterator<LaboratoryNameView> iterator = names.iterator();
+                    while (iterator.hasNext()) {
+                        LaboratoryNameView view = iterator.next();
+                        synchronized (this) {
+                            if (!touchedDuringLoad.contains(view.id())) {
+                                put(view.id(), view.name());
+                            }
+                        }
+                    }
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.error("No se pudo construir el índice de nombres; los duplicados se detectarán en la base de datos",
+                    ex);
+            synchronized (this) {
+                loading = false;
+            }
+            return;
+        }
+        synchronized (this) {
+            loading = false;
+            touchedDuringLoad.clear();
+            ready = true;
+        }
+        log.info("Índice de nombres construido con {} laboratorios en {} ms", namesById.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Aplica al índice un cambio confirmado en la base de datos. El nombre
+     * anterior se obtiene del propio índice, por lo que no depende de que el
+     * evento incluya el estado previo.
+     *
+     * @param event Evento de cambio del laboratorio.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onLaboratoryChanged(LaboratoryChangedEvent event) {
+        if (loading) {
+            touchedDuringLoad.add(event.id());
+        }
+        Laboratory current = event.current();
+        if (current != null && current.getName() != null) {
+            put(event.id(), current.getName());
+        } else {
+            String previousName = namesById.remove(event.id());
+            if (previousName != null) {
+                idsByName.remove(previousName, event.id());
+            }
+        }
+    }
+
+    /**
+     * Indica si el nombre pertenece a un laboratorio distinto del indicado.
+     *
+     * @param name      Nombre a verificar.
+     * @param excludeId ID del laboratorio que se está modificando, o un valor
+     *                  no existente (por ejemplo 0) al crear.
+     * @return {@code true} si el índice está listo y el nombre ya pertenece a
+     *         otro laboratorio.
+     */
+    public boolean isTaken(String name, long excludeId) {
+        if (!ready || name == null) {
+            return false;
+        }
+        Long owner = idsByName.get(name);
+        return owner != null && owner != excludeId;
+    }
+
+    private void put(long id, String name) {
+        String previousName = namesById.put(id, name);
+        if (previousName != null && !Objects.equals(previousName, name)) {
+            idsByName.remove(previousName, id);
+        }
+        idsByName.put(name, id);
+    }
+}
@@ -0,0 +1,282 @@
+package com.exp2.cache;
+
+import com.exp2.config.ReadWriteRoutingDataSource;
+import com.exp2.event.LaboratoryChangedEvent;
+import com.exp2.model.Laboratory;
+import com.exp2.service.LaboratoryService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Instantánea del registro completo de laboratorios ya serializada en JSON y
+ * comprimida con gzip, para responder el listado completo copiando bytes sin
+ * pasar por Jackson.
+ * La instantánea es inmutable: cada cambio confirmado programa, tras
+ * {@code laboratory.snapshot.rebuild-delay-ms}, la construcción de una nueva
+ * en un hilo propio, y al terminar se publica reemplazando la referencia. Los
+ * lectores ven la instantánea anterior o la nueva, nunca una a medio
+ * construir. Los cambios que llegan durante una construcción programan otra,
+ * de modo que una ráfaga de escrituras (por ejemplo, una carga masiva) produce
+ * pocas reconstrucciones. La construcción lee del primario, para incluir el
+ * cambio que la provocó aunque las lecturas vayan a una réplica. Si una
+ * construcción falla se reintenta con espera exponencial, desde
+ * {@code laboratory.snapshot.retry-delay-ms} hasta
+ * {@code laboratory.snapshot.retry-max-delay-ms}, para que un error al
+ * arrancar no deje el endpoint sin instantánea hasta la próxima escritura.
+ * Con {@code laboratory.snapshot.off-heap} los bytes se guardan fuera del heap.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "laboratory.snapshot.enabled", havingValue = "true")
+public class LaboratorySnapshot {
+
+    private static final int WRITE_CHUNK_SIZE = 64 * 1024;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final LaboratoryService laboratoryService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter laboratoryWriter;
+    private final boolean offHeap;
+    private final long rebuildDelayMillis;
+    private final long retryDelayMillis;
+    private final long retryMaxDelayMillis;
+    private final ScheduledExecutorService builder = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("laboratory-snapshot").daemon().factory());
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final Counter rebuilds;
+    private volatile Snapshot current;
+    private long sequence;
+    private int failures;
+
+    public LaboratorySnapshot(LaboratoryService laboratoryService, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${laboratory.snapshot.off-heap:false}") boolean offHeap,
+            @Value("${laboratory.snapshot.rebuild-delay-ms:200}") long rebuildDelayMillis,
+            @Value("${laboratory.snapshot.retry-delay-ms:1000}") long retryDelayMillis,
+            @Value("${laboratory.snapshot.retry-max-delay-ms:60000}") long retryMaxDelayMillis) {
+        this.laboratoryService = laboratoryService;
+        this.objectMapper = objectMapper;
+        this.laboratoryWriter = objectMapper.writerFor(Laboratory.class);
+        this.offHeap = offHeap;
+        this.rebuildDelayMillis = rebuildDelayMillis;
+        this.retryDelayMillis = Math.max(1, retryDelayMillis);
+        this.retryMaxDelayMillis = Math.max(this.retryDelayMillis, retryMaxDelayMillis);
+        this.rebuilds = Counter.builder("laboratory.snapshot.rebuilds")
+                .description("Instantáneas del listado completo construidas")
+                .register(meterRegistry);
+        Gauge.builder("laboratory.snapshot.bytes", this, snapshot -> snapshot.size(false))
+                .description("Tamaño de la instantánea del listado completo")
+                .tag("encoding", "identity")
+                .register(meterRegistry);
+        Gauge.builder("laboratory.snapshot.bytes", this, snapshot -> snapshot.size(true))
+                .description("Tamaño de la instantánea del listado completo")
+                .tag("encoding", "gzip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Construye la primera instantánea al terminar el arranque.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild(0);
+    }
+
+    /**
+     * Programa la reconstrucción de la instantánea tras un cambio confirmado.
+     *
+     * @param event Evento de cambio del laboratorio.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLaboratoryChanged(LaboratoryChangedEvent event) {
+        scheduleRebuild(rebuildDelayMillis);
+    }
+
+    /**
+     * Instantánea vigente.
+     *
+     * @return Última instantánea construida, o {@code null} si aún no hay
+     *         ninguna.
+     */
+    public Snapshot current() {
+        return current;
+    }
+
+    @PreDestroy
+    void stop() {
+        builder.shutdownNow();
+    }
+
+    private void scheduleRebuild(long delayMillis) {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            builder.schedule(this::rebuild, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuild() {
+        // Los cambios confirmados desde este punto programan otra construcción.
+        rebuildScheduled.set(false);
+        long start = System.nanoTime();
+        ReadWriteRoutingDataSource.setPrimaryReads(true);
+        try {
+            ByteArrayOutputStream json = new ByteArrayOutputStream(current == null ? 64 * 1024 : size(false));
+            long count;
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+                generator.writeStartArray();
+                count = laboratoryService.exportLaboratories(laboratory -> write(generator, laboratory));
+                generator.writeEndArray();
+            }
+            byte[] jsonBytes = json.toByteArray();
+            byte[] gzipBytes = gzip(jsonBytes);
+            current = new Snapshot("snapshot-" + epoch + "-" + (++sequence), count, buffer(jsonBytes),
+                    buffer(gzipBytes));
+            rebuilds.increment();
+            failures = 0;
+            log.debug("Instantánea {} del listado construida: {} laboratorios, {} bytes ({} con gzip) en {} ms",
+                    sequence, count, jsonBytes.length, gzipBytes.length, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException ex) {
+            long retryIn = retryDelay(++failures);
+            log.error("No se pudo construir la instantánea del listado (intento {}); se mantiene la anterior y se"
+                    + " reintenta en {} ms", failures, retryIn, ex);
+            scheduleRebuild(retryIn);
+        } finally {
+            ReadWriteRoutingDataSource.setPrimaryReads(false);
+        }
+    }
+
+    private long retryDelay(int attempt) {
+        int doublings = Math.min(attempt - 1, Long.numberOfLeadingZeros(retryDelayMillis) - 2);
+        return Math.min(retryMaxDelayMillis, retryDelayMillis << doublings);
+    }
+
+    private void write(JsonGenerator generator, Laboratory laboratory) {
+        try {
+            laboratoryWriter.writeValue(generator, laboratory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private ByteBuffer buffer(byte[] bytes) {
+        if (!offHeap) {
+            return ByteBuffer.wrap(bytes);
+        }
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
+    private int size(boolean gzip) {
+        Snapshot snapshot = current;
+        return snapshot == null ? 0 : snapshot.contentLength(gzip);
+    }
+
+    /**
+     * Instantánea inmutable del listado completo. Los búferes no se exponen;
+     * cada escritura usa una vista propia, por lo que puede compartirse entre
+     * hilos.
+     */
+    public static final class Snapshot {
+
+        private final String version;
+        private final long count;
+        private final ByteBuffer json;
+        private final ByteBuffer gzip;
+
+        private Snapshot(String version, long count, ByteBuffer json, ByteBuffer gzip) {
+            this.version = version;
+            this.count = count;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        /**
+         * ETag fuerte del cuerpo en la codificación indicada; cambia con cada
+         * reconstrucción. El cuerpo comprimido y el sin comprimir tienen
+         * bytes distintos, por lo que cada uno tiene su propio ETag.
+         *
+         * @param gzip {@code true} para la versión comprimida.
+         * @return ETag entre comillas.
+         */
+        public String eTag(boolean gzip) {
+            return "\"" + version + (gzip ? "-gzip" : "") + "\"";
+        }
+
+        /**
+         * Cantidad de laboratorios incluidos.
+         *
+         * @return Cantidad de laboratorios.
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Tamaño del cuerpo en bytes.
+         *
+         * @param gzip {@code true} para la versión comprimida.
+         * @return Cantidad de bytes.
+         */
+        public int contentLength(boolean gzip) {
+            return (gzip ? this.gzip : json).remaining();
+        }
+
+        /**
+         * Escribe el cuerpo en la respuesta.
+         *
+         * @param out  Flujo de salida de la respuesta.
+         * @param gzip {@code true} para escribir la versión comprimida.
+         * @throws IOException si falla la escritura.
+         */
+        public void writeTo(OutputStream out, boolean gzip) throws IOException {
+            ByteBuffer view = (gzip ? this.gzip : json).duplicate();
+            if (view.hasArray()) {
+                out.write(view.array(), view.arrayOffset() + view.position(), view.remaining());
+                return;
+            }
+            byte[] chunk = new byte[Math.min(WRITE_CHUNK_SIZE, view.remaining())];
+            while (view.hasRemaining()) {
+                int length = Math.min(chunk.length, view.remaining());
+                view.get(chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        }
+    }
+}
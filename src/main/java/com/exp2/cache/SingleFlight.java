@@ -0,0 +1,238 @@
+package com.exp2.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Coalescencia de cargas concurrentes por clave (single-flight).
+ * El primer hilo que pide una clave ejecuta la carga; los que piden la misma
+ * clave mientras tanto esperan su resultado en lugar de repetir la consulta.
+ * La carga se ejecuta fuera de cualquier bloqueo, por lo que las demás claves
+ * no esperan y los hilos virtuales no quedan fijados a su hilo portador.
+ * Si la carga falla, los que esperaban reciben la misma excepción y la clave
+ * queda libre para el siguiente intento.
+ * Al invalidar una clave con {@link #forget(Object)} antes de invalidar la
+ * caché, una carga en curso (que pudo leer datos anteriores al cambio) ya no
+ * guarda su resultado. Lo mismo vale para las cargas de varias claves
+ * ({@link #loadAll}): cada clave se registra antes de la consulta conjunta y
+ * solo se guardan las que siguen registradas al terminar.
+ * El cargador debe abrir su propia transacción: quien espera una carga en
+ * curso no tiene que ocupar una conexión mientras tanto. Las cargas se
+ * separan además por partición (por ejemplo, lecturas del primario y de la
+ * réplica), de modo que un hilo nunca recibe un valor leído con un
+ * enrutamiento distinto del suyo.
+ *
+ * @param <K> Tipo de la clave.
+ * @param <V> Tipo del valor cargado; puede ser {@code null}.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<Flight<K>, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final BooleanSupplier partition;
+
+    /**
+     * Crea una coalescencia sin particiones.
+     */
+    SingleFlight() {
+        this(() -> false);
+    }
+
+    /**
+     * Crea una coalescencia cuyas cargas solo se comparten entre hilos de la
+     * misma partición.
+     *
+     * @param partition Partición del hilo actual, evaluada en cada carga.
+     */
+    SingleFlight(BooleanSupplier partition) {
+        this.partition = partition;
+    }
+
+    /**
+     * Carga el valor de una clave o espera la carga en curso de la misma
+     * clave.
+     *
+     * @param key    Clave a cargar.
+     * @param loader Carga a ejecutar si no hay otra en curso.
+     * @param store  Acción que guarda el valor cargado; solo se ejecuta si la
+     *               clave no se invalidó durante la carga.
+     * @return Valor cargado por este hilo o por el que ya estaba cargando.
+     */
+    V load(K key, Supplier<V> loader, Consumer<V> store) {
+        Flight<K> flight = new Flight<>(key, partition.getAsBoolean());
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(flight, call);
+        if (inFlight != null) {
+            coalesced.increment();
+            return await(inFlight);
+        }
+        loads.increment();
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error ex) {
+            calls.remove(flight, call);
+            call.completeExceptionally(ex);
+            throw ex;
+        }
+        calls.computeIfPresent(flight, (k, current) -> {
+            if (current != call) {
+                return current;
+            }
+            store.accept(value);
+            return null;
+        });
+        call.complete(value);
+        return value;
+    }
+
+    /**
+     * Carga varias claves con una sola llamada al cargador. Las claves que ya
+     * tienen una carga en curso esperan esa carga; las demás se registran
+     * antes de ejecutar el cargador, de modo que otras peticiones por ellas
+     * esperan esta carga y una invalidación durante la consulta impide
+     * guardar su valor. El cargador se ejecuta antes de esperar las cargas
+     * ajenas, para que dos cargas conjuntas que comparten claves no se
+     * esperen mutuamente.
+     *
+     * @param keys   Claves a cargar.
+     * @param loader Carga de las claves registradas por este hilo; devuelve
+     *               los valores encontrados indexados por clave.
+     * @param store  Acción que guarda el valor cargado de una clave
+     *               ({@code null} si no se encontró); solo se ejecuta para las
+     *               claves que no se invalidaron durante la carga.
+     * @return Valores encontrados indexados por clave, en el orden de
+     *         {@code keys}; las claves sin valor no aparecen.
+     */
+    Map<K, V> loadAll(Collection<K> keys, Function<Set<K>, Map<K, V>> loader, BiConsumer<K, V> store) {
+        boolean ownPartition = partition.getAsBoolean();
+        Map<K, CompletableFuture<V>> owned = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> awaited = new HashMap<>();
+        for (K key : keys) {
+            if (owned.containsKey(key) || awaited.containsKey(key)) {
+                continue;
+            }
+            CompletableFuture<V> call = new CompletableFuture<>();
+            CompletableFuture<V> inFlight = calls.putIfAbsent(new Flight<>(key, ownPartition), call);
+            if (inFlight == null) {
+                owned.put(key, call);
+            } else {
+                coalesced.increment();
+                awaited.put(key, inFlight);
+            }
+        }
+        Map<K, V> values = new HashMap<>();
+        if (!owned.isEmpty()) {
+            loads.increment();
+            Map<K, V> loaded;
+            try {
+                loaded = loader.apply(new LinkedHashSet<>(owned.keySet()));
+            } catch (RuntimeException | Error ex) {
+                owned.forEach((key, call) -> {
+                    calls.remove(new Flight<>(key, ownPartition), call);
+                    call.completeExceptionally(ex);
+                });
+                throw ex;
+            }
+            owned.forEach((key, call) -> {
+                V value = loaded.get(key);
+                calls.computeIfPresent(new Flight<>(key, ownPartition), (k, current) -> {
+                    if (current != call) {
+                        return current;
+                    }
+                    store.accept(key, value);
+                    return null;
+                });
+                call.complete(value);
+                values.put(key, value);
+            });
+        }
+        awaited.forEach((key, call) -> values.put(key, await(call)));
+        Map<K, V> found = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = values.get(key);
+            if (value != null) {
+                found.putIfAbsent(key, value);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Descarta las cargas en curso de una clave, en todas las particiones: su
+     * resultado no se guardará.
+     *
+     * @param key Clave invalidada.
+     */
+    void forget(K key) {
+        calls.remove(new Flight<>(key, false));
+        calls.remove(new Flight<>(key, true));
+    }
+
+    /**
+     * Descarta las cargas en curso de las claves que cumplen la condición.
+     *
+     * @param predicate Condición sobre la clave.
+     */
+    void forgetIf(Predicate<K> predicate) {
+        calls.keySet().removeIf(flight -> predicate.test(flight.key()));
+    }
+
+    /**
+     * Descarta todas las cargas en curso.
+     */
+    void forgetAll() {
+        calls.clear();
+    }
+
+    /**
+     * Cantidad de cargas ejecutadas.
+     */
+    long loads() {
+        return loads.sum();
+    }
+
+    /**
+     * Cantidad de peticiones que esperaron una carga en curso en lugar de
+     * ejecutar la suya.
+     */
+    long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Clave de una carga en curso dentro de su partición.
+     */
+    private record Flight<K>(K key, boolean partition) {
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.exp2.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.SQLException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuración del límite de conexiones concurrentes a la base de datos.
+ * Se habilita con {@code laboratory.db-gate.enabled}, que por defecto sigue a
+ * {@code spring.threads.virtual.enabled}: al atender las peticiones con hilos
+ * virtuales, el DataSource se envuelve en un {@link GatedDataSource} con
+ * tantos permisos como conexiones tiene el pool.
+ * Con lecturas en una réplica ({@link ReadReplicaConfig}) cada pool tiene su
+ * propio semáforo; el DataSource de enrutamiento no se limita.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "laboratory.db-gate.enabled", havingValue = "true")
+public class DatabaseGateConfig {
+
+    /**
+     * Envuelve el DataSource de la aplicación en un {@link GatedDataSource}.
+     *
+     * @param environment Entorno, para leer la cantidad de permisos y el tiempo
+     *                    de espera. La réplica usa
+     *                    {@code laboratory.db-gate.replica-permits}, que por
+     *                    defecto es el tamaño de su pool.
+     * @return Post-procesador que reemplaza el bean DataSource.
+     */
+    @Bean
+    public static BeanPostProcessor gatedDataSourcePostProcessor(Environment environment) {
+        int permits = environment.getProperty("laboratory.db-gate.permits", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        int replicaPermits = environment.getProperty("laboratory.db-gate.replica-permits", Integer.class,
+                environment.getProperty("laboratory.datasource.replica.maximum-pool-size", Integer.class, 10));
+        Duration acquireTimeout = Duration.ofMillis(
+                environment.getProperty("laboratory.db-gate.acquire-timeout-ms", Long.class, 120_000L));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof GatedDataSource)
+                        && !isRouting(dataSource)) {
+                    int beanPermits = "replicaDataSource".equals(beanName) ? replicaPermits : permits;
+                    log.info("Limitando el DataSource '{}' a {} conexiones concurrentes", beanName, beanPermits);
+                    return new GatedDataSource(dataSource, beanName, beanPermits, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static boolean isRouting(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ReadWriteRoutingDataSource.class);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Publica como métricas los permisos libres y la cantidad de peticiones
+     * esperando una conexión en el semáforo.
+     *
+     * @param dataSources DataSources de la aplicación.
+     * @return Registro de las métricas del semáforo.
+     */
+    @Bean
+    public MeterBinder gatedDataSourceMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(GatedDataSource.class::isInstance)
+                .map(GatedDataSource.class::cast)
+                .forEach(gate -> {
+                    Gauge.builder("laboratory.db.gate.available", gate, GatedDataSource::availablePermits)
+                            .description("Permisos libres para obtener una conexión")
+                            .tag("datasource", gate.getName())
+                            .register(registry);
+                    Gauge.builder("laboratory.db.gate.queued", gate, GatedDataSource::queueLength)
+                            .description("Peticiones esperando una conexión")
+                            .tag("datasource", gate.getName())
+                            .register(registry);
+                });
+    }
+}
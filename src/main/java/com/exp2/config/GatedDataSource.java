@@ -0,0 +1,131 @@
+package com.exp2.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que limita con un semáforo justo (FIFO) la cantidad de conexiones
+ * en uso al mismo tiempo.
+ * Con hilos virtuales pueden existir miles de peticiones concurrentes; sin este
+ * límite todas competirían por las conexiones del pool y fallarían al superar
+ * su tiempo de espera. Con el semáforo, las peticiones excedentes esperan en
+ * orden de llegada estacionando el hilo virtual, lo que no consume hilos de
+ * plataforma, y el pool entrega conexiones sin esperas internas.
+ * El permiso se libera al cerrar la conexión.
+ */
+public class GatedDataSource extends DelegatingDataSource {
+
+    private final String name;
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+
+    /**
+     * Crea un DataSource limitado.
+     *
+     * @param target         DataSource real (normalmente el pool Hikari).
+     * @param name           Nombre del DataSource, para las métricas.
+     * @param permits        Cantidad máxima de conexiones en uso; debe
+     *                       coincidir con el tamaño del pool.
+     * @param acquireTimeout Tiempo máximo de espera por un permiso.
+     */
+    public GatedDataSource(DataSource target, String name, int permits, Duration acquireTimeout) {
+        super(target);
+        this.name = name;
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return gated(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return gated(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Nombre del DataSource limitado.
+     *
+     * @return Nombre del bean.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Cantidad de permisos libres en este momento.
+     *
+     * @return Permisos disponibles.
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Cantidad estimada de hilos esperando un permiso.
+     *
+     * @return Largo de la cola de espera.
+     */
+    public int queueLength() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No se obtuvo una conexión a la base de datos tras esperar " + acquireTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido mientras esperaba una conexión", ex);
+        }
+    }
+
+    private Connection gated(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            return invoke(connection, method, args);
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    return invoke(connection, method, args);
+                });
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
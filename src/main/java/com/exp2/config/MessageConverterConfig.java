@@ -0,0 +1,44 @@
+package com.exp2.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Formatos binarios de la API, además de JSON.
+ * Los clientes eligen el formato con la cabecera {@code Accept}
+ * ({@code application/cbor} o {@code application/x-jackson-smile}) y pueden
+ * enviar los cuerpos en el mismo formato con {@code Content-Type}. Sin
+ * {@code Accept}, o con {@code *}{@code /*}, se responde JSON.
+ * Los convertidores usan el {@link Jackson2ObjectMapperBuilder} de Spring
+ * Boot, de modo que aplican la misma configuración de Jackson que JSON.
+ */
+@Configuration
+public class MessageConverterConfig {
+
+    /**
+     * Convertidor CBOR (RFC 8949).
+     *
+     * @param builder Constructor de ObjectMapper configurado por Spring Boot.
+     * @return Convertidor para {@code application/cbor}.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Convertidor Smile (JSON binario de Jackson).
+     *
+     * @param builder Constructor de ObjectMapper configurado por Spring Boot.
+     * @return Convertidor para {@code application/x-jackson-smile}.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,90 @@
+package com.exp2.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Configuración de lecturas en una réplica.
+ * Se habilita con {@code laboratory.datasource.replica.enabled}. Reemplaza el
+ * DataSource autoconfigurado por dos pools Hikari, el primario
+ * ({@code spring.datasource.*}) y la réplica
+ * ({@code laboratory.datasource.replica.*}, con su propio tamaño), y un
+ * {@link ReadWriteRoutingDataSource} que envía a la réplica las transacciones
+ * de solo lectura. Con {@code laboratory.datasource.replica.sticky-window-ms}
+ * mayor que cero, un cliente lee del primario durante ese tiempo después de
+ * cada escritura propia ({@link ReadYourWritesFilter}).
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "laboratory.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    /**
+     * Pool del primario, configurado como el DataSource autoconfigurado.
+     *
+     * @param properties Propiedades {@code spring.datasource}.
+     * @return Pool Hikari del primario.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Pool de la réplica. Sus conexiones se abren en modo de solo lectura.
+     *
+     * @return Pool Hikari de la réplica.
+     */
+    @Bean
+    @ConfigurationProperties("laboratory.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * DataSource de la aplicación: enruta cada transacción al primario o a la
+     * réplica al ejecutar su primera sentencia.
+     *
+     * @param primary Pool del primario.
+     * @param replica Pool de la réplica.
+     * @return DataSource de enrutamiento.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica) {
+        log.info("Lecturas de solo lectura enrutadas a la réplica");
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica));
+    }
+
+    /**
+     * Filtro de lectura de las propias escrituras.
+     *
+     * @param windowMillis Tiempo de lectura del primario tras una escritura.
+     * @return Filtro que fuerza las lecturas del cliente al primario.
+     */
+    @Bean
+    @ConditionalOnExpression("${laboratory.datasource.replica.sticky-window-ms:0} > 0")
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${laboratory.datasource.replica.sticky-window-ms}") long windowMillis) {
+        return new ReadYourWritesFilter(Duration.ofMillis(windowMillis));
+    }
+}
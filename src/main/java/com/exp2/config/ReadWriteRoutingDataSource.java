@@ -0,0 +1,86 @@
+package com.exp2.config;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource que envía las transacciones de solo lectura
+ * ({@code @Transactional(readOnly = true)}) a la réplica y todo lo demás al
+ * primario.
+ * La decisión se toma al obtener la conexión, por lo que debe usarse detrás de
+ * un {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * el gestor de transacciones pide la conexión antes de marcar la transacción
+ * como de solo lectura, y el proxy la obtiene recién con la primera sentencia.
+ * Las lecturas del hilo actual pueden forzarse al primario con
+ * {@link #setPrimaryReads(boolean)} (lectura de las propias escrituras).
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    /**
+     * Crea el DataSource de enrutamiento.
+     *
+     * @param primary DataSource del primario (lectura y escritura).
+     * @param replica DataSource de la réplica (solo lectura).
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Indica si las lecturas del hilo actual deben ir al primario. Debe
+     * restablecerse a {@code false} al terminar la petición.
+     *
+     * @param primaryReads {@code true} para leer del primario.
+     */
+    public static void setPrimaryReads(boolean primaryReads) {
+        if (primaryReads) {
+            PRIMARY_READS.set(Boolean.TRUE);
+        } else {
+            PRIMARY_READS.remove();
+        }
+    }
+
+    /**
+     * Indica si las lecturas del hilo actual están forzadas al primario.
+     *
+     * @return {@code true} si las transacciones de solo lectura del hilo van
+     *         al primario.
+     */
+    public static boolean isPrimaryReads() {
+        return PRIMARY_READS.get() != null;
+    }
+
+    /**
+     * Ejecuta una consulta con las lecturas del hilo actual en el primario y
+     * después restablece el enrutamiento anterior.
+     *
+     * @param query Consulta a ejecutar.
+     * @param <T>   Tipo del resultado.
+     * @return Resultado de la consulta.
+     */
+    public static <T> T readFromPrimary(Supplier<T> query) {
+        boolean previous = isPrimaryReads();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return query.get();
+        } finally {
+            setPrimaryReads(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && !isPrimaryReads() ? REPLICA : PRIMARY;
+    }
+}
@@ -0,0 +1,76 @@
+package com.exp2.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filtro de lectura de las propias escrituras cuando las lecturas van a una
+ * réplica.
+ * Cada petición que modifica datos ({@code POST}, {@code PUT}, {@code PATCH},
+ * {@code DELETE}) deja en el cliente una cookie con el instante hasta el cual
+ * sus lecturas deben ir al primario. Mientras la cookie siga vigente, las
+ * transacciones de solo lectura de ese cliente usan el primario y no ven el
+ * retraso de la réplica. La cookie solo afecta el enrutamiento del propio
+ * cliente, por lo que no necesita firmarse.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "LAB_PRIMARY_UNTIL";
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final long windowMillis;
+
+    /**
+     * @param window Tiempo durante el cual un cliente lee del primario después
+     *               de una escritura; debe superar el retraso de la réplica.
+     */
+    public ReadYourWritesFilter(Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean primaryReads = primaryUntil(request) > now;
+        if (MUTATING_METHODS.contains(request.getMethod())) {
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + windowMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+            response.addCookie(cookie);
+            primaryReads = true;
+        }
+        ReadWriteRoutingDataSource.setPrimaryReads(primaryReads);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.setPrimaryReads(false);
+        }
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
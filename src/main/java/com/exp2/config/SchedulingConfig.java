@@ -0,0 +1,13 @@
+package com.exp2.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas de la aplicación (por ejemplo, la purga de
+ * marcas de eliminación antiguas).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
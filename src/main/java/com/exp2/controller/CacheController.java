@@ -0,0 +1,38 @@
+package com.exp2.controller;
+
+import com.exp2.cache.LaboratoryCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para consultar el estado de la caché de laboratorios.
+ */
+@Tag(name = "Cache", description = "Estadísticas de la caché de laboratorios")
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final LaboratoryCache laboratoryCache;
+
+    public CacheController(LaboratoryCache laboratoryCache) {
+        this.laboratoryCache = laboratoryCache;
+    }
+
+    /**
+     * Obtiene los contadores de aciertos, fallos, desalojos e invalidaciones
+     * de la caché.
+     *
+     * @return Estadísticas de la caché por región.
+     */
+    @Operation(summary = "Obtener estadísticas de la caché de laboratorios")
+    @ApiResponse(responseCode = "200", description = "Estadísticas de la caché")
+    @GetMapping("/stats")
+    public ResponseEntity<LaboratoryCache.CacheReport> getCacheStats() {
+        return ResponseEntity.ok(laboratoryCache.stats());
+    }
+}
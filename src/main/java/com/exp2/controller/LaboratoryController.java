@@ -1,14 +1,62 @@
 package com.exp2.controller;
 
+import com.exp2.cache.IdempotencyKeyStore;
+import com.exp2.cache.LaboratorySnapshot;
+import com.exp2.config.ReadWriteRoutingDataSource;
+import com.exp2.dto.BulkImportReport;
+import com.exp2.dto.LaboratoryBatchResult;
+import com.exp2.dto.LaboratoryField;
+import com.exp2.dto.LaboratoryNameView;
+import com.exp2.dto.LaboratoryPage;
+import com.exp2.dto.LaboratoryPatch;
+import com.exp2.dto.LaboratorySyncPage;
+import com.exp2.dto.SearchResultPage;
+import com.exp2.event.LaboratoryChangeFeed;
+import com.exp2.event.LaboratoryChangeTracker;
+import com.exp2.exception.ResourceNotFoundException;
+import com.exp2.exception.ServiceUnavailableException;
 import com.exp2.model.Laboratory;
+import com.exp2.service.LaboratoryCsvReader;
+import com.exp2.service.LaboratoryImportService;
 import com.exp2.service.LaboratoryService;
+import com.exp2.service.LaboratoryWriteBehindService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 
 
@@ -18,6 +66,21 @@ import java.util.List;
  * la entidad Laboratory.
  * Documentado con Swagger/OpenAPI para facilitar la exploración y prueba de la
  * API.
+ * Las consultas devuelven ETags fuertes: por laboratorio a partir de su ID,
+ * su versión y la representación enviada (formato y {@code fields}), y por
+ * colección a partir del contador global de cambios. Si el
+ * cliente envía {@code If-None-Match} con el ETag vigente se responde 304 sin
+ * cuerpo; en las colecciones, además, sin consultar la base de datos.
+ * El listado, la búsqueda y la consulta por ID aceptan {@code fields} para
+ * devolver solo algunos campos; en el listado, además, solo esas columnas se
+ * leen de la base de datos.
+ * Si las escrituras diferidas están habilitadas, las altas y actualizaciones
+ * completas se delegan en {@link LaboratoryWriteBehindService} y se responden
+ * de forma asíncrona cuando se confirma el lote que las contiene; sin ese
+ * modo se responden en el mismo hilo, sin procesamiento asíncrono del
+ * servlet. En ambos modos el cuerpo se valida antes de escribir.
+ * Las respuestas se negocian por {@code Accept} entre JSON, CBOR y Smile; el
+ * ETag de las colecciones incluye el formato solicitado.
  */
 @Tag(name = "Laboratories", description = "Operaciones CRUD para laboratorios")
 @RestController
@@ -25,57 +88,380 @@ import java.util.List;
 public class LaboratoryController {
 
 
+    /**
+     * Cantidad de líneas NDJSON tras la cual se fuerza el envío al cliente.
+     */
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final List<MediaType> RESPONSE_TYPES = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+
     private final LaboratoryService laboratoryService;
+    private final LaboratoryImportService laboratoryImportService;
+    private final LaboratoryChangeTracker changeTracker;
+    private final LaboratoryChangeFeed changeFeed;
+    private final LaboratoryWriteBehindService writeBehindService;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final LaboratorySnapshot laboratorySnapshot;
+    private final ObjectWriter laboratoryWriter;
+    private final ObjectReader laboratoryReader;
 
-    public LaboratoryController(LaboratoryService laboratoryService) {
+    public LaboratoryController(LaboratoryService laboratoryService,
+            LaboratoryImportService laboratoryImportService, LaboratoryChangeTracker changeTracker,
+            LaboratoryChangeFeed changeFeed, ObjectProvider<LaboratoryWriteBehindService> writeBehindService,
+            IdempotencyKeyStore idempotencyKeyStore, ObjectProvider<LaboratorySnapshot> laboratorySnapshot,
+            ObjectMapper objectMapper) {
         this.laboratoryService = laboratoryService;
+        this.laboratoryImportService = laboratoryImportService;
+        this.changeTracker = changeTracker;
+        this.changeFeed = changeFeed;
+        this.writeBehindService = writeBehindService.getIfAvailable();
+        this.idempotencyKeyStore = idempotencyKeyStore;
+        this.laboratorySnapshot = laboratorySnapshot.getIfAvailable();
+        this.laboratoryWriter = objectMapper.writerFor(Laboratory.class);
+        this.laboratoryReader = objectMapper.readerFor(Laboratory.class);
     }
 
     /**
      * Crea un nuevo laboratorio.
      *
-     * @param laboratory Objeto Laboratory a crear.
-     * @return El laboratorio creado.
+     * Con {@code Idempotency-Key}, los reintentos con la misma clave reciben la
+     * respuesta del alta original (con {@code Idempotent-Replayed: true}) sin
+     * volver a escribir; si el alta original sigue en curso, esperan a que
+     * termine.
+     *
+     * @param laboratory     Objeto Laboratory a crear.
+     * @param idempotencyKey Clave de idempotencia (opcional).
+     * @param accept         Formatos aceptados, para el ETag.
+     * @return El laboratorio creado: un {@link ResponseEntity}, o un
+     *         {@link CompletableFuture} con él si las escrituras diferidas
+     *         están habilitadas.
      */
     @Operation(summary = "Crear un nuevo laboratorio")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Laboratorio creado exitosamente"),
-            @ApiResponse(responseCode = "400", description = "Solicitud inválida")
+            @ApiResponse(responseCode = "200", description = "Laboratorio creado exitosamente",
+                    content = @Content(schema = @Schema(implementation = Laboratory.class))),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key ya usada con otros datos"),
+            @ApiResponse(responseCode = "503", description = "Cola de escrituras diferidas llena")
     })
     @PostMapping
-    public ResponseEntity<Laboratory> createLaboratory(@RequestBody Laboratory laboratory) {
-        Laboratory savedLab = laboratoryService.saveLaboratory(laboratory);
-        return ResponseEntity.ok(savedLab);
+    public Object createLaboratory(@Valid @RequestBody Laboratory laboratory,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (idempotencyKey == null) {
+            if (writeBehindService == null) {
+                return withETag(laboratoryService.saveLaboratory(laboratory), accept);
+            }
+            return writeBehindService.saveLaboratory(laboratory).thenApply(saved -> withETag(saved, accept));
+        }
+        CompletableFuture<ResponseEntity<Laboratory>> response = idempotencyKeyStore
+                .execute(idempotencyKey, laboratory, () -> create(laboratory))
+                .thenApply(result -> {
+                    ResponseEntity.BodyBuilder builder = okWithETag(entityETag(result.laboratory(), accept, null));
+                    if (result.replayed()) {
+                        builder.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+                    }
+                    return builder.body(result.laboratory());
+                });
+        return writeBehindService == null ? await(response) : response;
+    }
+
+    private CompletableFuture<Laboratory> create(Laboratory laboratory) {
+        if (writeBehindService != null) {
+            return writeBehindService.saveLaboratory(laboratory);
+        }
+        return CompletableFuture.completedFuture(laboratoryService.saveLaboratory(laboratory));
+    }
+
+    /**
+     * Espera un resultado en el hilo de la petición, para los modos sin
+     * escrituras diferidas. Solo bloquea cuando un reintento con la misma
+     * clave de idempotencia espera el alta original, que ya está en curso en
+     * otro hilo.
+     */
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Carga masiva de laboratorios desde un arreglo JSON.
+     * El arreglo se lee de forma incremental y se inserta en lotes JDBC.
+     *
+     * @param body   Cuerpo de la petición con un arreglo JSON de laboratorios.
+     * @param upsert Si es {@code true}, actualiza los laboratorios existentes
+     *               con el mismo nombre en lugar de marcarlos como duplicados.
+     * @return Reporte con el resultado de cada fila.
+     * @throws IOException si no se puede leer el cuerpo de la petición.
+     */
+    @Operation(summary = "Carga masiva de laboratorios (JSON)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reporte de la carga por fila"),
+            @ApiResponse(responseCode = "400", description = "JSON mal formado")
+    })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportReport> bulkImportJson(InputStream body,
+            @RequestParam(defaultValue = "false") boolean upsert) throws IOException {
+        try (MappingIterator<Laboratory> rows = laboratoryReader.readValues(body)) {
+            return ResponseEntity.ok(laboratoryImportService.importLaboratories(rows, upsert));
+        } catch (RuntimeJsonMappingException ex) {
+            throw new IllegalArgumentException("JSON inválido en la carga masiva: " + ex.getMessage());
+        }
     }
 
     /**
-     * Obtiene la lista de todos los laboratorios.
+     * Carga masiva de laboratorios desde un CSV con cabecera.
+     * El archivo se lee línea a línea y se inserta en lotes JDBC.
      *
-     * @return Lista de laboratorios.
+     * @param body   Cuerpo de la petición con el CSV.
+     * @param upsert Si es {@code true}, actualiza los laboratorios existentes
+     *               con el mismo nombre en lugar de marcarlos como duplicados.
+     * @return Reporte con el resultado de cada fila.
      */
-    @Operation(summary = "Obtener todos los laboratorios")
-    @ApiResponse(responseCode = "200", description = "Lista de laboratorios")
+    @Operation(summary = "Carga masiva de laboratorios (CSV)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reporte de la carga por fila"),
+            @ApiResponse(responseCode = "400", description = "Cabecera CSV inválida")
+    })
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportReport> bulkImportCsv(InputStream body,
+            @RequestParam(defaultValue = "false") boolean upsert) {
+        LaboratoryCsvReader rows = new LaboratoryCsvReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return ResponseEntity.ok(laboratoryImportService.importLaboratories(rows, upsert));
+    }
+
+    /**
+     * Obtiene una página de laboratorios usando paginación por cursor.
+     * Para recorrer el registro completo se debe enviar el {@code nextCursor}
+     * de cada respuesta en la siguiente solicitud.
+     *
+     * @param cursor    Cursor de la página anterior (opcional).
+     * @param size      Tamaño de página (opcional, limitado al máximo
+     *                  configurado).
+     * @param specialty Especialidad exacta a filtrar (opcional).
+     * @param name      Nombre o parte del nombre a filtrar (opcional).
+     * @param fields    Campos a devolver separados por comas, por ejemplo
+     *                  {@code id,name,specialty} (opcional).
+     * @param request   Petición actual, para evaluar {@code If-None-Match}.
+     * @return Página de laboratorios con el cursor de la página siguiente, o
+     *         304 si no hubo cambios.
+     */
+    @Operation(summary = "Obtener laboratorios paginados por cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de laboratorios"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado"),
+            @ApiResponse(responseCode = "400", description = "Cursor, tamaño de página o campos inválidos")
+    })
     @GetMapping
-    public ResponseEntity<List<Laboratory>> getAllLaboratories() {
-        return ResponseEntity.ok(laboratoryService.getAllLaboratories());
+    public ResponseEntity<LaboratoryPage<?>> getAllLaboratories(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String specialty,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request) {
+        Set<LaboratoryField> fieldSet = LaboratoryField.parse(fields);
+        String eTag = collectionETag(request);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        LaboratoryPage<?> page = queryCollection(() -> fieldSet == null
+                ? laboratoryService.getLaboratoriesPage(cursor, size, specialty, name)
+                : laboratoryService.getLaboratoriesPage(cursor, size, specialty, name, fieldSet));
+        return okWithETag(eTag).body(page);
+    }
+
+    /**
+     * Exporta el registro completo de laboratorios en formato NDJSON (un objeto
+     * JSON por línea). Las filas se escriben a medida que se leen de la base de
+     * datos, por lo que el uso de memoria es constante y el cliente recibe los
+     * primeros datos antes de que termine la lectura.
+     *
+     * @return Cuerpo de respuesta que se escribe de forma incremental.
+     */
+    @Operation(summary = "Exportar todos los laboratorios como NDJSON")
+    @ApiResponse(responseCode = "200", description = "Flujo NDJSON de laboratorios")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportLaboratories() {
+        StreamingResponseBody body = out -> {
+            long[] written = { 0 };
+            laboratoryService.exportLaboratories(laboratory -> {
+                writeNdjsonLine(out, laboratory);
+                if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                    flush(out);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Devuelve el registro completo como un único arreglo JSON.
+     *
+     * Requiere {@code laboratory.snapshot.enabled}: la respuesta se copia de
+     * una instantánea ya serializada, comprimida con gzip si el cliente lo
+     * acepta, que se reconstruye poco después de cada cambio; mientras se
+     * reconstruye se responde la anterior. Nunca se lee el registro completo
+     * en la petición: sin ese modo se responde 404, y antes de la primera
+     * instantánea, 503.
+     *
+     * @param request  Petición actual, para evaluar {@code If-None-Match} y
+     *                 {@code Accept-Encoding}.
+     * @param response Respuesta en la que se escribe la instantánea.
+     * @return {@code null}: la respuesta ya se escribió.
+     * @throws IOException                 si falla la escritura de la
+     *                                     instantánea.
+     * @throws ResourceNotFoundException   si la instantánea no está
+     *                                     habilitada.
+     * @throws ServiceUnavailableException si la primera instantánea aún no
+     *                                     se construyó.
+     */
+    @Operation(summary = "Listado completo de laboratorios (instantánea)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Todos los laboratorios"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado"),
+            @ApiResponse(responseCode = "404", description = "Instantánea no habilitada"),
+            @ApiResponse(responseCode = "503", description = "Primera instantánea en construcción")
+    })
+    @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<Laboratory>> getSnapshot(ServletWebRequest request, HttpServletResponse response)
+            throws IOException {
+        if (laboratorySnapshot == null) {
+            throw new ResourceNotFoundException("La instantánea del listado no está habilitada; use /api/laboratories"
+                    + " o /api/laboratories/export");
+        }
+        LaboratorySnapshot.Snapshot snapshot = laboratorySnapshot.current();
+        if (snapshot == null) {
+            throw new ServiceUnavailableException("La instantánea del listado se está construyendo, intente"
+                    + " nuevamente en unos segundos");
+        }
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (request.checkNotModified(snapshot.eTag(gzip))) {
+            return null;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(snapshot.contentLength(gzip));
+        snapshot.writeTo(response.getOutputStream(), gzip);
+        return null;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equals("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Canal de cambios en formato Server-Sent Events. Emite un evento
+     * {@code created}, {@code updated} o {@code deleted} por cada cambio
+     * confirmado, con el laboratorio resultante. Al reconectarse, el cliente
+     * (o {@code EventSource}) envía {@code Last-Event-ID} y recibe los cambios
+     * que se perdió; si ya no están disponibles, recibe un evento
+     * {@code reset} y debe volver a leer el registro.
+     *
+     * @param lastEventId ID del último evento recibido (opcional).
+     * @return Flujo de eventos del cliente.
+     */
+    @Operation(summary = "Canal de cambios de laboratorios (Server-Sent Events)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo de eventos de cambio"),
+            @ApiResponse(responseCode = "503", description = "Máximo de clientes conectados alcanzado")
+    })
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeFeed.subscribe(lastEventId);
+    }
+
+    /**
+     * Sincronización incremental. Devuelve los laboratorios creados o
+     * modificados y los IDs eliminados desde el token indicado, junto con el
+     * token para la próxima llamada. Sin token se devuelve el registro
+     * completo. Si {@code hasMore} es verdadero, el cliente debe volver a
+     * llamar de inmediato con el nuevo token.
+     *
+     * @param token Token de la sincronización anterior (opcional).
+     * @param size  Cantidad máxima de cambios y de eliminaciones (opcional).
+     * @return Página de cambios.
+     */
+    @Operation(summary = "Sincronización incremental de laboratorios")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cambios desde el token indicado"),
+            @ApiResponse(responseCode = "400", description = "Token o tamaño inválidos"),
+            @ApiResponse(responseCode = "410", description = "Token expirado, se debe sincronizar sin token")
+    })
+    @GetMapping("/sync")
+    public ResponseEntity<LaboratorySyncPage> sync(@RequestParam(required = false) String token,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(laboratoryService.sync(token, size));
     }
 
     /**
      * Obtiene un laboratorio por su ID.
      *
-     * @param id ID del laboratorio.
+     * Si {@code If-None-Match} coincide con la versión actual se responde 304
+     * sin serializar el laboratorio.
+     *
+     * @param id     ID del laboratorio.
+     * @param fields Campos a devolver separados por comas (opcional).
+     * @param accept Formatos aceptados, para el ETag.
      * @return El laboratorio encontrado o 404 si no existe.
      */
     @Operation(summary = "Obtener laboratorio por ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Laboratorio encontrado"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado"),
             @ApiResponse(responseCode = "404", description = "Laboratorio no encontrado")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Laboratory> getLaboratoryById(@PathVariable Long id) {
+    public ResponseEntity<?> getLaboratoryById(@PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Set<LaboratoryField> fieldSet = LaboratoryField.parse(fields);
         return laboratoryService.getLaboratoryById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+                .map(laboratory -> okWithETag(entityETag(laboratory, accept, fieldSet))
+                        .body(fieldSet == null ? laboratory : LaboratoryField.project(laboratory, fieldSet)))
+                .orElseThrow(() -> new ResourceNotFoundException("Laboratorio no encontrado con ID: " + id));
+    }
+
+    /**
+     * Obtiene varios laboratorios por ID en una sola petición, en lugar de
+     * una petición por laboratorio.
+     *
+     * @param ids Arreglo JSON con los IDs a consultar (hasta el máximo
+     *            configurado).
+     * @return Laboratorios encontrados indexados por ID y los IDs inexistentes.
+     */
+    @Operation(summary = "Obtener varios laboratorios por ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Laboratorios encontrados e IDs inexistentes"),
+            @ApiResponse(responseCode = "400", description = "Lista de IDs vacía o demasiado grande")
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<LaboratoryBatchResult> getLaboratoriesByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(laboratoryService.getLaboratoriesByIds(ids));
     }
 
     /**
@@ -83,21 +469,56 @@ public class LaboratoryController {
      *
      * @param id         ID del laboratorio a actualizar.
      * @param laboratory Datos nuevos del laboratorio.
-     * @return El laboratorio actualizado o 404 si no existe.
+     * @param accept     Formatos aceptados, para el ETag.
+     * @return El laboratorio actualizado: un {@link ResponseEntity}, o un
+     *         {@link CompletableFuture} con él si las escrituras diferidas
+     *         están habilitadas.
      */
     @Operation(summary = "Actualizar laboratorio por ID")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Laboratorio actualizado exitosamente"),
-            @ApiResponse(responseCode = "404", description = "Laboratorio no encontrado")
+            @ApiResponse(responseCode = "200", description = "Laboratorio actualizado exitosamente",
+                    content = @Content(schema = @Schema(implementation = Laboratory.class))),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida"),
+            @ApiResponse(responseCode = "404", description = "Laboratorio no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Nombre duplicado o modificación concurrente"),
+            @ApiResponse(responseCode = "503", description = "Cola de escrituras diferidas llena")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Laboratory> updateLaboratory(@PathVariable Long id, @RequestBody Laboratory laboratory) {
-        try {
-            Laboratory updatedLab = laboratoryService.updateLaboratory(id, laboratory);
-            return ResponseEntity.ok(updatedLab);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+    public Object updateLaboratory(@PathVariable Long id, @Valid @RequestBody Laboratory laboratory,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (writeBehindService != null) {
+            return writeBehindService.updateLaboratory(id, laboratory).thenApply(saved -> withETag(saved, accept));
         }
+        return withETag(laboratoryService.updateLaboratory(id, laboratory), accept);
+    }
+
+    /**
+     * Modifica parcialmente un laboratorio. Solo se cambian los campos
+     * presentes en el cuerpo, con una única sentencia UPDATE condicionada a la
+     * versión que el cliente leyó. La versión se toma de la cabecera
+     * {@code If-Match} (el ETag del laboratorio) o, si no se envía, del campo
+     * {@code version} del cuerpo.
+     *
+     * @param id      ID del laboratorio a modificar.
+     * @param ifMatch ETag del laboratorio leído por el cliente (opcional).
+     * @param patch   Campos a modificar.
+     * @param accept  Formatos aceptados, para el ETag.
+     * @return El laboratorio modificado con su nuevo ETag.
+     */
+    @Operation(summary = "Modificar parcialmente un laboratorio por ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Laboratorio modificado exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cambios inválidos o versión ausente"),
+            @ApiResponse(responseCode = "404", description = "Laboratorio no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Nombre duplicado o versión desactualizada")
+    })
+    @PatchMapping("/{id}")
+    public ResponseEntity<Laboratory> patchLaboratory(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody LaboratoryPatch patch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        long version = ifMatch != null ? versionFromETag(id, ifMatch) : requireVersion(patch);
+        return withETag(laboratoryService.patchLaboratory(id, version, patch), accept);
     }
 
     /**
@@ -121,25 +542,236 @@ public class LaboratoryController {
      * Busca laboratorios por especialidad.
      *
      * @param specialty Especialidad a buscar.
-     * @return Lista de laboratorios con la especialidad indicada.
+     * @param request   Petición actual, para evaluar {@code If-None-Match}.
+     * @return Lista de laboratorios con la especialidad indicada, o 304 si no
+     *         hubo cambios.
      */
     @Operation(summary = "Buscar laboratorios por especialidad")
-    @ApiResponse(responseCode = "200", description = "Lista de laboratorios por especialidad")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de laboratorios por especialidad"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado")
+    })
     @GetMapping("/specialty/{specialty}")
-    public ResponseEntity<List<Laboratory>> getBySpecialty(@PathVariable String specialty) {
-        return ResponseEntity.ok(laboratoryService.findBySpecialty(specialty));
+    public ResponseEntity<List<Laboratory>> getBySpecialty(@PathVariable String specialty,
+            ServletWebRequest request) {
+        String eTag = collectionETag(request);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return okWithETag(eTag).body(queryCollection(() -> laboratoryService.findBySpecialty(specialty)));
     }
 
     /**
      * Busca laboratorios por nombre (búsqueda parcial, sin distinguir mayúsculas/minúsculas).
      *
-     * @param name Nombre o parte del nombre a buscar.
-     * @return Lista de laboratorios que coinciden con el nombre.
+     * @param name    Nombre o parte del nombre a buscar.
+     * @param limit   Cantidad máxima de resultados (opcional).
+     * @param request Petición actual, para evaluar {@code If-None-Match}.
+     * @return Lista de laboratorios que coinciden con el nombre, o 304 si no
+     *         hubo cambios.
      */
     @Operation(summary = "Buscar laboratorios por nombre")
-    @ApiResponse(responseCode = "200", description = "Lista de laboratorios por nombre")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de laboratorios por nombre"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado"),
+            @ApiResponse(responseCode = "400", description = "Límite inválido")
+    })
     @GetMapping("/name/{name}")
-    public ResponseEntity<List<Laboratory>> getByName(@PathVariable String name) {
-        return ResponseEntity.ok(laboratoryService.findByName(name));
+    public ResponseEntity<List<Laboratory>> getByName(@PathVariable String name,
+            @RequestParam(required = false) Integer limit, ServletWebRequest request) {
+        String eTag = collectionETag(request);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return okWithETag(eTag).body(queryCollection(() -> laboratoryService.findByName(name, limit)));
+    }
+
+    /**
+     * Autocompletado de nombres de laboratorio por prefijo.
+     * Devuelve solo el ID y el nombre, resueltos desde un índice en memoria
+     * sin consultar la base de datos.
+     *
+     * @param prefix  Prefijo del nombre (sin distinguir mayúsculas/minúsculas).
+     * @param limit   Cantidad máxima de resultados (opcional).
+     * @param request Petición actual, para evaluar {@code If-None-Match}.
+     * @return Pares ID/nombre en orden alfabético, o 304 si no hubo cambios.
+     */
+    @Operation(summary = "Autocompletar nombres de laboratorio por prefijo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pares ID/nombre que comienzan con el prefijo"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado"),
+            @ApiResponse(responseCode = "400", description = "Límite inválido")
+    })
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<LaboratoryNameView>> autocomplete(@RequestParam String prefix,
+            @RequestParam(required = false) Integer limit, ServletWebRequest request) {
+        String eTag = collectionETag(request);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return okWithETag(eTag).body(queryCollection(() -> laboratoryService.autocomplete(prefix, limit)));
+    }
+
+    /**
+     * Búsqueda de texto completo sobre nombre, dirección y especialidad.
+     * La consulta se divide en términos sin distinguir mayúsculas/minúsculas
+     * ni tildes, y los resultados se ordenan por relevancia (los términos en
+     * el nombre pesan más que en la especialidad, y éstos más que en la
+     * dirección).
+     *
+     * @param q       Texto de la consulta.
+     * @param page    Número de página, comenzando en 0 (opcional).
+     * @param size    Tamaño de página (opcional).
+     * @param fields  Campos a devolver separados por comas (opcional).
+     * @param request Petición actual, para evaluar {@code If-None-Match}.
+     * @return Página de resultados ordenados por relevancia, o 304 si no hubo
+     *         cambios.
+     */
+    @Operation(summary = "Búsqueda de texto completo de laboratorios")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultados ordenados por relevancia"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag indicado"),
+            @ApiResponse(responseCode = "400", description = "Consulta, paginación o campos inválidos"),
+            @ApiResponse(responseCode = "503", description = "Índice de búsqueda en construcción")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<SearchResultPage<?>> search(@RequestParam String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields, ServletWebRequest request) {
+        Set<LaboratoryField> fieldSet = LaboratoryField.parse(fields);
+        String eTag = collectionETag(request);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        SearchResultPage<Laboratory> result = queryCollection(() -> laboratoryService.search(q, page, size));
+        return okWithETag(eTag).body(fieldSet == null ? result
+                : result.map(laboratory -> LaboratoryField.project(laboratory, fieldSet)));
+    }
+
+    private String collectionETag(ServletWebRequest request) {
+        HttpServletRequest servletRequest = request.getRequest();
+        String query = servletRequest.getQueryString();
+        String resource = query == null ? servletRequest.getRequestURI() : servletRequest.getRequestURI() + "?" + query;
+        return changeTracker.collectionETag(resource + " " + servletRequest.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    /**
+     * Ejecuta la consulta de una colección cuyo ETag ya se calculó. Si se
+     * confirmó un cambio dentro del retraso admitido de la réplica, la
+     * consulta lee del primario: el ETag ya cuenta ese cambio y la réplica
+     * podría no reflejarlo todavía.
+     */
+    private <T> T queryCollection(Supplier<T> query) {
+        if (!changeTracker.changedWithinReplicaLag()) {
+            return query.get();
+        }
+        return ReadWriteRoutingDataSource.readFromPrimary(query);
+    }
+
+    /**
+     * Respuesta 200 con ETag. El formato (JSON, CBOR o Smile) depende de la
+     * cabecera {@code Accept}, por lo que se indica en {@code Vary} para las
+     * cachés intermedias.
+     */
+    private static ResponseEntity.BodyBuilder okWithETag(String eTag) {
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT);
+    }
+
+    private static ResponseEntity<Laboratory> withETag(Laboratory laboratory, String accept) {
+        return okWithETag(entityETag(laboratory, accept, null)).body(laboratory);
+    }
+
+    /**
+     * ETag fuerte de un laboratorio: {@code "id-versión"} para el laboratorio
+     * completo en JSON, seguido de {@code ;subtipo} si se responde en otro
+     * formato y de {@code ;fields=...} si se devuelven solo algunos campos
+     * (en el orden de {@link LaboratoryField}, no en el de la petición). Así
+     * cada representación de la misma versión tiene su propio ETag.
+     */
+    private static String entityETag(Laboratory laboratory, String accept, Set<LaboratoryField> fields) {
+        StringBuilder eTag = new StringBuilder("\"").append(laboratory.getId()).append('-')
+                .append(laboratory.getVersion());
+        MediaType responseType = responseType(accept);
+        if (!MediaType.APPLICATION_JSON.equals(responseType)) {
+            eTag.append(';').append(responseType.getSubtype());
+        }
+        if (fields != null) {
+            eTag.append(";fields=")
+                    .append(fields.stream().map(LaboratoryField::attribute).collect(Collectors.joining(",")));
+        }
+        return eTag.append('"').toString();
+    }
+
+    /**
+     * Formato de la respuesta según {@code Accept}: el primero de los
+     * formatos aceptados, ordenados por especificidad y calidad, que
+     * producen los convertidores; JSON si no hay cabecera o no es válida.
+     */
+    private static MediaType responseType(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType acceptedType : accepted) {
+            for (MediaType responseType : RESPONSE_TYPES) {
+                if (acceptedType.isCompatibleWith(responseType)) {
+                    return responseType;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private static long versionFromETag(Long id, String eTag) {
+        String value = eTag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        int representation = value.indexOf(';');
+        if (representation >= 0) {
+            value = value.substring(0, representation);
+        }
+        String prefix = id + "-";
+        if (!value.startsWith(prefix)) {
+            throw new IllegalArgumentException("El ETag de If-Match no corresponde al laboratorio con ID: " + id);
+        }
+        try {
+            return Long.parseLong(value.substring(prefix.length()));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("ETag inválido en If-Match: " + eTag);
+        }
+    }
+
+    private static long requireVersion(LaboratoryPatch patch) {
+        if (patch.version() == null) {
+            throw new IllegalArgumentException(
+                    "Debe indicar la versión del laboratorio en la cabecera If-Match o en el campo version");
+        }
+        return patch.version();
+    }
+
+    private void writeNdjsonLine(OutputStream out, Laboratory laboratory) {
+        try {
+            out.write(laboratoryWriter.writeValueAsBytes(laboratory));
+            out.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void flush(OutputStream out) {
+        try {
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
     }
 }
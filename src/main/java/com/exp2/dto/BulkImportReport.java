@@ -0,0 +1,34 @@
+package com.exp2.dto;
+
+import java.util.List;
+
+/**
+ * Reporte de una carga masiva de laboratorios con el resultado de cada fila.
+ *
+ * @param total      Cantidad de filas recibidas.
+ * @param created    Cantidad de laboratorios creados.
+ * @param updated    Cantidad de laboratorios actualizados (modo upsert).
+ * @param duplicates Cantidad de filas rechazadas por nombre duplicado.
+ * @param invalid    Cantidad de filas rechazadas por validación.
+ * @param rows       Resultado de cada fila, ordenado por número de fila.
+ */
+public record BulkImportReport(int total, int created, int updated, int duplicates, int invalid,
+        List<BulkImportRowResult> rows) {
+
+    /**
+     * Construye el reporte a partir de los resultados por fila.
+     *
+     * @param rows Resultados ordenados por número de fila.
+     * @return Reporte con los totales calculados.
+     */
+    public static BulkImportReport of(List<BulkImportRowResult> rows) {
+        int[] counts = new int[BulkImportStatus.values().length];
+        rows.forEach(row -> counts[row.status().ordinal()]++);
+        return new BulkImportReport(rows.size(),
+                counts[BulkImportStatus.CREATED.ordinal()],
+                counts[BulkImportStatus.UPDATED.ordinal()],
+                counts[BulkImportStatus.DUPLICATE.ordinal()],
+                counts[BulkImportStatus.INVALID.ordinal()],
+                rows);
+    }
+}
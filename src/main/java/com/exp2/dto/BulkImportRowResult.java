@@ -0,0 +1,17 @@
+package com.exp2.dto;
+
+import java.util.List;
+
+/**
+ * Resultado del procesamiento de una fila en una carga masiva.
+ *
+ * @param row    Número de fila en la carga (comenzando en 1, sin contar la
+ *               cabecera CSV).
+ * @param status Resultado de la fila.
+ * @param id     ID del laboratorio creado o actualizado, o {@code null}.
+ * @param name   Nombre del laboratorio indicado en la fila.
+ * @param errors Mensajes de error asociados a la fila (vacío si no hubo
+ *               errores).
+ */
+public record BulkImportRowResult(int row, BulkImportStatus status, Long id, String name, List<String> errors) {
+}
@@ -0,0 +1,28 @@
+package com.exp2.dto;
+
+/**
+ * Resultado posible de una fila en una carga masiva de laboratorios.
+ */
+public enum BulkImportStatus {
+
+    /**
+     * La fila se insertó como un nuevo laboratorio.
+     */
+    CREATED,
+
+    /**
+     * La fila actualizó un laboratorio existente con el mismo nombre (modo
+     * upsert).
+     */
+    UPDATED,
+
+    /**
+     * El nombre ya existe en la base de datos o aparece repetido en la carga.
+     */
+    DUPLICATE,
+
+    /**
+     * La fila no cumple las restricciones de validación de {@code Laboratory}.
+     */
+    INVALID
+}
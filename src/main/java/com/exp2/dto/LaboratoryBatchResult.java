@@ -0,0 +1,15 @@
+package com.exp2.dto;
+
+import com.exp2.model.Laboratory;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de una consulta de varios laboratorios por ID.
+ *
+ * @param found   Laboratorios encontrados indexados por ID, en el orden en que
+ *                se solicitaron.
+ * @param missing IDs solicitados que no existen.
+ */
+public record LaboratoryBatchResult(Map<Long, Laboratory> found, List<Long> missing) {
+}
@@ -0,0 +1,15 @@
+package com.exp2.dto;
+
+import com.exp2.event.LaboratoryChangedEvent.ChangeType;
+import com.exp2.model.Laboratory;
+
+/**
+ * Contenido de un evento del canal de cambios de laboratorios.
+ *
+ * @param type       Tipo de cambio.
+ * @param id         ID del laboratorio afectado.
+ * @param laboratory Estado del laboratorio después del cambio, o
+ *                   {@code null} si fue eliminado.
+ */
+public record LaboratoryChangeMessage(ChangeType type, long id, Laboratory laboratory) {
+}
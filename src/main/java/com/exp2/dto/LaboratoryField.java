@@ -0,0 +1,89 @@
+package com.exp2.dto;
+
+import com.exp2.model.Laboratory;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Campos de un laboratorio que pueden solicitarse con el parámetro
+ * {@code fields} de las consultas. El nombre de cada campo coincide con su
+ * propiedad JSON y con el atributo de la entidad. El ID se incluye siempre,
+ * porque identifica al laboratorio y determina el cursor de paginación.
+ */
+public enum LaboratoryField {
+
+    ID("id", Laboratory::getId),
+    NAME("name", Laboratory::getName),
+    ADDRESS("address", Laboratory::getAddress),
+    PHONE("phone", Laboratory::getPhone),
+    EMAIL("email", Laboratory::getEmail),
+    WEBSITE("website", Laboratory::getWebsite),
+    SPECIALTY("specialty", Laboratory::getSpecialty),
+    VERSION("version", Laboratory::getVersion),
+    CREATED_AT("createdAt", Laboratory::getCreatedAt),
+    UPDATED_AT("updatedAt", Laboratory::getUpdatedAt);
+
+    private final String attribute;
+    private final Function<Laboratory, Object> getter;
+
+    LaboratoryField(String attribute, Function<Laboratory, Object> getter) {
+        this.attribute = attribute;
+        this.getter = getter;
+    }
+
+    /**
+     * @return Nombre del atributo de la entidad y de la propiedad JSON.
+     */
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * Interpreta el parámetro {@code fields}, una lista de campos separados
+     * por comas.
+     *
+     * @param fields Valor del parámetro, o {@code null}.
+     * @return Campos solicitados (siempre con el ID), o {@code null} si el
+     *         parámetro no se envió y debe devolverse el laboratorio completo.
+     * @throws IllegalArgumentException si algún campo no existe.
+     */
+    public static Set<LaboratoryField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<LaboratoryField> parsed = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                parsed.add(Arrays.stream(values())
+                        .filter(field -> field.attribute.equals(trimmed))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("Campo desconocido en fields: " + trimmed
+                                + ". Campos válidos: " + Arrays.stream(values())
+                                        .map(LaboratoryField::attribute)
+                                        .collect(Collectors.joining(", ")))));
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Obtiene los campos indicados de un laboratorio ya cargado.
+     *
+     * @param laboratory Laboratorio completo.
+     * @param fields     Campos a incluir.
+     * @return Valores por nombre de propiedad, en el orden de los campos.
+     */
+    public static Map<String, Object> project(Laboratory laboratory, Set<LaboratoryField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (LaboratoryField field : fields) {
+            values.put(field.attribute, field.getter.apply(laboratory));
+        }
+        return values;
+    }
+}
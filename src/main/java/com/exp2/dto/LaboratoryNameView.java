@@ -0,0 +1,12 @@
+package com.exp2.dto;
+
+/**
+ * Vista reducida de un laboratorio con solo su ID y nombre.
+ * Se usa para construir índices en memoria y en respuestas livianas sin
+ * cargar la entidad completa.
+ *
+ * @param id   ID del laboratorio.
+ * @param name Nombre del laboratorio.
+ */
+public record LaboratoryNameView(long id, String name) {
+}
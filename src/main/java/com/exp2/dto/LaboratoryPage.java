@@ -0,0 +1,19 @@
+package com.exp2.dto;
+
+import java.util.List;
+
+/**
+ * Página de laboratorios obtenida mediante paginación por cursor (keyset).
+ * El cursor es un token opaco que apunta al último laboratorio entregado, de
+ * modo que la siguiente página se obtiene con una búsqueda por índice sobre
+ * {@code id_laboratory} en lugar de un OFFSET.
+ *
+ * @param <T>        Laboratorio completo o con solo los campos solicitados.
+ * @param items      Laboratorios de la página, ordenados por ID ascendente.
+ * @param size       Tamaño de página aplicado.
+ * @param hasMore    Indica si existen más resultados después de esta página.
+ * @param nextCursor Cursor para solicitar la página siguiente, o {@code null}
+ *                   si no hay más resultados.
+ */
+public record LaboratoryPage<T>(List<T> items, int size, boolean hasMore, String nextCursor) {
+}
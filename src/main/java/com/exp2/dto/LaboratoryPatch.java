@@ -0,0 +1,49 @@
+package com.exp2.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Cambios parciales sobre un laboratorio. Solo se modifican los campos
+ * presentes (distintos de {@code null}); las reglas de validación son las
+ * mismas que las de la entidad.
+ *
+ * @param version   Versión del laboratorio sobre la que se aplican los
+ *                  cambios, si no se envía en la cabecera {@code If-Match}.
+ * @param name      Nuevo nombre.
+ * @param address   Nueva dirección.
+ * @param phone     Nuevo teléfono.
+ * @param email     Nuevo correo electrónico.
+ * @param website   Nuevo sitio web.
+ * @param specialty Nueva especialidad.
+ */
+public record LaboratoryPatch(
+        Long version,
+        @Size(min = 4, message = "El nombre debe tener al menos 4 caracteres")
+        @Pattern(regexp = ".*\\S.*", message = "El nombre es obligatorio")
+        String name,
+        @Size(max = 150, message = "La dirección debe tener un máximo de 150 caracteres")
+        @Pattern(regexp = ".*\\S.*", message = "La dirección es obligatoria")
+        String address,
+        @Pattern(regexp = "\\+?\\d{7,15}", message = "El teléfono debe ser válido y contener entre 7 y 15 dígitos")
+        String phone,
+        @Email(message = "El correo electrónico debe ser válido")
+        @Size(max = 100, min = 5, message = "El correo electrónico debe tener entre 5 y 100 caracteres")
+        String email,
+        @Size(max = 100, message = "El sitio web debe tener un máximo de 100 caracteres")
+        String website,
+        @Size(max = 50, min = 2, message = "La especialidad debe tener entre 2 y 50 caracteres")
+        @Pattern(regexp = ".*\\S.*", message = "La especialidad es obligatoria")
+        String specialty) {
+
+    /**
+     * Indica si el cambio no modifica ningún campo.
+     *
+     * @return {@code true} si todos los campos son {@code null}.
+     */
+    public boolean isEmpty() {
+        return name == null && address == null && phone == null && email == null && website == null
+                && specialty == null;
+    }
+}
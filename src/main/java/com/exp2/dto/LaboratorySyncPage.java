@@ -0,0 +1,19 @@
+package com.exp2.dto;
+
+import com.exp2.model.Laboratory;
+import java.util.List;
+
+/**
+ * Resultado de una sincronización incremental: los laboratorios creados o
+ * modificados y los IDs eliminados desde el token anterior.
+ *
+ * @param changed   Laboratorios creados o modificados, en orden de
+ *                  modificación.
+ * @param deleted   IDs de los laboratorios eliminados.
+ * @param hasMore   Indica si quedan cambios por entregar; en ese caso debe
+ *                  pedirse de inmediato la página siguiente con
+ *                  {@code nextToken}.
+ * @param nextToken Token para la siguiente sincronización.
+ */
+public record LaboratorySyncPage(List<Laboratory> changed, List<Long> deleted, boolean hasMore, String nextToken) {
+}
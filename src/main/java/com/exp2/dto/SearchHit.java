@@ -0,0 +1,11 @@
+package com.exp2.dto;
+
+/**
+ * Resultado individual de una búsqueda de texto completo.
+ *
+ * @param <T>        Laboratorio completo o con solo los campos solicitados.
+ * @param laboratory Laboratorio encontrado.
+ * @param score      Puntaje de relevancia; mayor es más relevante.
+ */
+public record SearchHit<T>(T laboratory, double score) {
+}
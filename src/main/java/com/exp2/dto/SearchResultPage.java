@@ -0,0 +1,32 @@
+package com.exp2.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados de una búsqueda de texto completo, ordenada por
+ * relevancia.
+ *
+ * @param <T>   Laboratorio completo o con solo los campos solicitados.
+ * @param hits  Resultados de la página.
+ * @param total Cantidad total de laboratorios que coinciden con la consulta.
+ * @param page  Número de página (comenzando en 0).
+ * @param size  Tamaño de página aplicado.
+ */
+public record SearchResultPage<T>(List<SearchHit<T>> hits, long total, int page, int size) {
+
+    /**
+     * Transforma los laboratorios de la página conservando el puntaje y la
+     * paginación.
+     *
+     * @param <R>    Tipo de los laboratorios transformados.
+     * @param mapper Transformación de cada laboratorio.
+     * @return Página con los laboratorios transformados.
+     */
+    public <R> SearchResultPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<SearchHit<R>> mapped = hits.stream()
+                .map(hit -> new SearchHit<R>(mapper.apply(hit.laboratory()), hit.score()))
+                .toList();
+        return new SearchResultPage<>(mapped, total, page, size);
+    }
+}
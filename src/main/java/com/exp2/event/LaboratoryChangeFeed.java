@@ -0,0 +1,242 @@
+package com.exp2.event;
+
+import com.exp2.dto.LaboratoryChangeMessage;
+import com.exp2.exception.ServiceUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Canal de cambios de laboratorios mediante Server-Sent Events.
+ * Cada cambio confirmado se serializa una sola vez y recibe un ID
+ * {@code <época>-<secuencia>}, con secuencia creciente. Los últimos
+ * {@code laboratory.feed.replay-size} eventos se conservan en memoria para que
+ * un cliente que se reconecta con {@code Last-Event-ID} reciba los que se
+ * perdió. Si esos eventos ya no están disponibles (o el ID es de un arranque
+ * anterior), el cliente recibe un evento {@code reset} y debe volver a leer el
+ * registro completo.
+ * Cada suscriptor tiene una cola acotada y un hilo virtual que le envía los
+ * eventos, de modo que un cliente lento no retrasa la confirmación de las
+ * escrituras ni a los demás suscriptores. Si su cola se llena, el suscriptor
+ * se desconecta y puede reanudar desde el último evento recibido.
+ */
+@Slf4j
+@Component
+public class LaboratoryChangeFeed {
+
+    private static final String RESET_EVENT = "reset";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ObjectWriter messageWriter;
+    private final FeedEvent[] replay;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final int subscriberBuffer;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final long heartbeatMillis;
+    private final Counter evictions;
+    private long lastSequence;
+
+    public LaboratoryChangeFeed(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${laboratory.feed.replay-size:1000}") int replaySize,
+            @Value("${laboratory.feed.subscriber-buffer:256}") int subscriberBuffer,
+            @Value("${laboratory.feed.max-subscribers:1000}") int maxSubscribers,
+            @Value("${laboratory.feed.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${laboratory.feed.heartbeat-ms:15000}") long heartbeatMillis) {
+        this.messageWriter = objectMapper.writerFor(LaboratoryChangeMessage.class);
+        this.replay = new FeedEvent[Math.max(1, replaySize)];
+        this.subscriberBuffer = Math.max(1, subscriberBuffer);
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        Gauge.builder("laboratory.feed.subscribers", subscribers, Set::size)
+                .description("Clientes conectados al canal de cambios")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("laboratory.feed.evictions")
+                .description("Clientes desconectados por no consumir los eventos a tiempo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publica un cambio confirmado a todos los suscriptores. Se ejecuta
+     * después de que las cachés e índices aplicaron el cambio, para que un
+     * cliente que reacciona al evento lea los datos nuevos.
+     *
+     * @param event Evento de cambio del laboratorio.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLaboratoryChanged(LaboratoryChangedEvent event) {
+        String data = serialize(new LaboratoryChangeMessage(event.type(), event.id(), event.current()));
+        String name = event.type().name().toLowerCase(Locale.ROOT);
+        synchronized (this) {
+            FeedEvent feedEvent = new FeedEvent(++lastSequence, name, data);
+            replay[(int) (feedEvent.sequence() % replay.length)] = feedEvent;
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.queue.offer(feedEvent)) {
+                    evict(subscriber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Registra un nuevo suscriptor.
+     *
+     * @param lastEventId Último ID recibido por el cliente (cabecera
+     *                    {@code Last-Event-ID}), o {@code null} para recibir
+     *                    solo los cambios futuros.
+     * @return Emisor SSE del suscriptor.
+     * @throws ServiceUnavailableException si se alcanzó el máximo de
+     *                                     suscriptores.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceUnavailableException(
+                    "Se alcanzó el máximo de clientes del canal de cambios, intente nuevamente en unos segundos");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(subscriberBuffer));
+        List<FeedEvent> backlog;
+        boolean reset;
+        synchronized (this) {
+            Long after = parseSequence(lastEventId);
+            long oldest = Math.max(1, lastSequence - replay.length + 1);
+            reset = lastEventId != null && (after == null || after > lastSequence || after + 1 < oldest);
+            backlog = new ArrayList<>();
+            if (after != null && !reset) {
+                for (long sequence = after + 1; sequence <= lastSequence; sequence++) {
+                    backlog.add(replay[(int) (sequence % replay.length)]);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+        Thread.ofVirtual().name("laboratory-feed").start(() -> subscriber.run(backlog, reset));
+        return emitter;
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.evicted = true;
+            evictions.increment();
+            log.warn("Cliente del canal de cambios desconectado por no consumir {} eventos pendientes",
+                    subscriberBuffer);
+        }
+    }
+
+    private Long parseSequence(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(epoch + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private String serialize(LaboratoryChangeMessage message) {
+        try {
+            return messageWriter.writeValueAsString(message);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Evento ya serializado, compartido por todos los suscriptores.
+     */
+    private record FeedEvent(long sequence, String name, String data) {
+    }
+
+    /**
+     * Suscriptor conectado: su cola de eventos pendientes y el emisor SSE.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<FeedEvent> queue;
+        private volatile boolean evicted;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<FeedEvent> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        /**
+         * Envía los eventos pendientes del cliente hasta que se desconecta o
+         * es desalojado. Sin eventos, envía un comentario periódico para
+         * mantener abierta la conexión y detectar clientes caídos.
+         */
+        private void run(List<FeedEvent> backlog, boolean reset) {
+            try {
+                if (reset) {
+                    emitter.send(SseEmitter.event().name(RESET_EVENT)
+                            .data("Vuelva a leer el registro completo", MediaType.TEXT_PLAIN));
+                }
+                for (FeedEvent event : backlog) {
+                    send(event);
+                }
+                while (!closed && !evicted) {
+                    FeedEvent event = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (closed || evicted) {
+                        break;
+                    }
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        send(event);
+                    }
+                }
+                if (evicted) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Cliente del canal de cambios desconectado: {}", ex.getMessage());
+                emitter.completeWithError(ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } finally {
+                close();
+            }
+        }
+
+        private void send(FeedEvent event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(epoch + "-" + event.sequence())
+                    .name(event.name())
+                    .data(event.data(), MediaType.APPLICATION_JSON));
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.exp2.event;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Contador global de cambios confirmados sobre los laboratorios, usado para
+ * generar ETags de las consultas de colecciones sin acceder a la base de
+ * datos.
+ * El contador se incrementa después de que las cachés e índices en memoria
+ * aplicaron el cambio (por eso su listener se ejecuta en último lugar), de modo
+ * que un ETag nuevo nunca se asocia a datos anteriores al cambio. La época
+ * distingue los contadores de distintos arranques de la aplicación.
+ * Como el contador avanza al confirmarse el cambio en el primario, una réplica
+ * atrasada podría responder datos anteriores bajo el ETag nuevo; por eso se
+ * registra también el instante del último cambio, para que las consultas de
+ * colecciones lean del primario durante el retraso admitido de la réplica
+ * ({@code laboratory.datasource.replica.sticky-window-ms}).
+ * Solo se detectan los cambios realizados a través de este servicio.
+ */
+@Component
+public class LaboratoryChangeTracker {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong changes = new AtomicLong();
+    private final long replicaLagMillis;
+    private volatile long lastChangeMillis;
+
+    /**
+     * @param replicaLagMillis Retraso admitido de la réplica; 0 si las
+     *                         lecturas no van a una réplica.
+     */
+    public LaboratoryChangeTracker(
+            @Value("${laboratory.datasource.replica.sticky-window-ms:0}") long replicaLagMillis) {
+        this.replicaLagMillis = replicaLagMillis;
+    }
+
+    /**
+     * Registra un cambio confirmado en la base de datos.
+     *
+     * @param event Evento de cambio del laboratorio.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLaboratoryChanged(LaboratoryChangedEvent event) {
+        lastChangeMillis = System.currentTimeMillis();
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Indica si se confirmó un cambio hace menos que el retraso admitido de la
+     * réplica, es decir, si la réplica podría no reflejar todavía algún
+     * cambio ya contado en los ETags de colecciones.
+     *
+     * @return {@code true} si las consultas de colecciones deben leer del
+     *         primario.
+     */
+    public boolean changedWithinReplicaLag() {
+        return replicaLagMillis > 0 && System.currentTimeMillis() - lastChangeMillis < replicaLagMillis;
+    }
+
+    /**
+     * Genera un ETag fuerte para una consulta de colección. Cambia cada vez
+     * que se confirma un cambio sobre cualquier laboratorio.
+     *
+     * @param resource Identificación de la consulta (ruta y parámetros), para
+     *                 que cada consulta tenga su propio ETag.
+     * @return ETag entre comillas.
+     */
+    public String collectionETag(String resource) {
+        CRC32 crc = new CRC32();
+        crc.update(resource.getBytes(StandardCharsets.UTF_8));
+        return "\"" + epoch + "-" + changes.get() + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+}
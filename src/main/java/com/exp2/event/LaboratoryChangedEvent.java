@@ -0,0 +1,60 @@
+package com.exp2.event;
+
+import com.exp2.model.Laboratory;
+
+/**
+ * Evento publicado por la capa de servicio cada vez que un laboratorio se
+ * crea, actualiza o elimina.
+ * Los componentes que mantienen estado derivado en memoria (cachés, índices)
+ * lo escuchan para mantenerse sincronizados con la base de datos. Los
+ * laboratorios incluidos son copias desacopladas del contexto de persistencia.
+ *
+ * @param type     Tipo de cambio.
+ * @param id       ID del laboratorio afectado.
+ * @param previous Estado anterior al cambio, o {@code null} si se trata de una
+ *                 creación o de una actualización parcial cuyo estado
+ *                 anterior no se conoce.
+ * @param current  Estado posterior al cambio, o {@code null} si se trata de
+ *                 una eliminación.
+ */
+public record LaboratoryChangedEvent(ChangeType type, long id, Laboratory previous, Laboratory current) {
+
+    /**
+     * Tipo de cambio aplicado a un laboratorio.
+     */
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    /**
+     * Crea un evento de creación.
+     *
+     * @param current Laboratorio creado.
+     * @return Evento de tipo {@link ChangeType#CREATED}.
+     */
+    public static LaboratoryChangedEvent created(Laboratory current) {
+        return new LaboratoryChangedEvent(ChangeType.CREATED, current.getId(), null, current.copy());
+    }
+
+    /**
+     * Crea un evento de actualización.
+     *
+     * @param previous Copia del estado anterior, tomada antes de modificar la
+     *                 entidad, o {@code null} si no se conoce.
+     * @param current  Estado actualizado del laboratorio.
+     * @return Evento de tipo {@link ChangeType#UPDATED}.
+     */
+    public static LaboratoryChangedEvent updated(Laboratory previous, Laboratory current) {
+        return new LaboratoryChangedEvent(ChangeType.UPDATED, current.getId(), previous, current.copy());
+    }
+
+    /**
+     * Crea un evento de eliminación.
+     *
+     * @param previous Laboratorio eliminado.
+     * @return Evento de tipo {@link ChangeType#DELETED}.
+     */
+    public static LaboratoryChangedEvent deleted(Laboratory previous) {
+        return new LaboratoryChangedEvent(ChangeType.DELETED, previous.getId(), previous.copy(), null);
+    }
+}
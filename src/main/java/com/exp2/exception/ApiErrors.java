@@ -0,0 +1,62 @@
+package com.exp2.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Formato común de las respuestas de error de la API y su métrica.
+ * Lo usan tanto {@link GlobalExceptionHandler} como los filtros que responden
+ * antes de llegar a los controladores, de modo que todos los errores tienen el
+ * mismo cuerpo y se cuentan en {@code laboratory.api.errors}.
+ */
+public final class ApiErrors {
+
+    /**
+     * Métrica de errores devueltos por la API, etiquetada por tipo.
+     */
+    public static final String ERRORS_METRIC = "laboratory.api.errors";
+
+    static final String STATUS_KEY = "status";
+    static final String TIMESTAMP_KEY = "timestamp";
+    static final String ERROR_KEY = "error";
+    static final String PATH_KEY = "path";
+
+    private ApiErrors() {
+    }
+
+    /**
+     * Registra el contador de un tipo de error. Debe llamarse una sola vez por
+     * tipo y conservarse el contador, para no buscar el medidor en cada error.
+     *
+     * @param meterRegistry Registro de métricas.
+     * @param type          Tipo de error (etiqueta {@code type}).
+     * @return Contador del tipo de error.
+     */
+    public static Counter counter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder(ERRORS_METRIC)
+                .description("Errores devueltos por la API, por tipo")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cuerpo de una respuesta de error.
+     *
+     * @param status  Estado HTTP de la respuesta.
+     * @param message Mensaje para el cliente.
+     * @param path    Ruta de la petición.
+     * @return Cuerpo con estado, fecha, mensaje y ruta.
+     */
+    public static Map<String, Object> body(HttpStatusCode status, String message, String path) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put(STATUS_KEY, status.value());
+        error.put(TIMESTAMP_KEY, LocalDateTime.now());
+        error.put(ERROR_KEY, message);
+        error.put(PATH_KEY, path);
+        return error;
+    }
+}
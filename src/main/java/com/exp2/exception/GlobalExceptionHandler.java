@@ -1,10 +1,16 @@
 package com.exp2.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.ErrorResponseException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -18,19 +24,49 @@ import lombok.extern.slf4j.Slf4j;
  * Captura y personaliza las respuestas de error para diferentes tipos de
  * excepciones,
  * proporcionando mensajes claros y estructurados para el cliente.
+ * Cada tipo de error se cuenta en la métrica {@code laboratory.api.errors},
+ * etiquetada por tipo, con el mismo formato de cuerpo que los rechazos de los
+ * filtros ({@link ApiErrors}). Los contadores se registran una sola vez al crear el
+ * manejador, de modo que contar un error no busca ni crea medidores.
  */
 @Slf4j
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
     // Constantes para evitar duplicación de literales
-    private static final String STATUS_KEY = "status";
-    private static final String TIMESTAMP_KEY = "timestamp";
-    private static final String ERROR_KEY = "error";
-    private static final String PATH_KEY = "path";
     private static final String MESSAGE_KEY = "message";
     private static final String ERRORES_KEY = "errores";
 
+    private final Counter validationErrors;
+    private final Counter notFoundErrors;
+    private final Counter duplicateErrors;
+    private final Counter conflictErrors;
+    private final Counter badRequestErrors;
+    private final Counter unavailableErrors;
+    private final Counter expiredErrors;
+    private final Counter idempotencyErrors;
+    private final Counter internalErrors;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.validationErrors = errorCounter(meterRegistry, "validation");
+        this.notFoundErrors = errorCounter(meterRegistry, "not_found");
+        this.duplicateErrors = errorCounter(meterRegistry, "duplicate");
+        this.conflictErrors = errorCounter(meterRegistry, "version_conflict");
+        this.badRequestErrors = errorCounter(meterRegistry, "bad_request");
+        this.unavailableErrors = errorCounter(meterRegistry, "unavailable");
+        this.expiredErrors = errorCounter(meterRegistry, "sync_expired");
+        this.idempotencyErrors = errorCounter(meterRegistry, "idempotency_mismatch");
+        this.internalErrors = errorCounter(meterRegistry, "internal");
+    }
+
+    private static Counter errorCounter(MeterRegistry meterRegistry, String type) {
+        return ApiErrors.counter(meterRegistry, type);
+    }
+
+    private static String path(WebRequest request) {
+        return request.getDescription(false).replace("uri=", "");
+    }
+
     /**
      * Maneja errores de validación de argumentos en los controladores.
      *
@@ -39,12 +75,13 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationErrors(MethodArgumentNotValidException ex) {
+        validationErrors.increment();
         Map<String, String> errores = new HashMap<>();
         ex.getBindingResult().getFieldErrors()
                 .forEach(error -> errores.put(error.getField(), error.getDefaultMessage()));
         Map<String, Object> respuesta = new HashMap<>();
-        respuesta.put(STATUS_KEY, HttpStatus.BAD_REQUEST.value());
-        respuesta.put(TIMESTAMP_KEY, LocalDateTime.now());
+        respuesta.put(ApiErrors.STATUS_KEY, HttpStatus.BAD_REQUEST.value());
+        respuesta.put(ApiErrors.TIMESTAMP_KEY, LocalDateTime.now());
         respuesta.put(ERRORES_KEY, errores);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(respuesta);
     }
@@ -59,11 +96,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleResourceNotFound(ResourceNotFoundException ex,
             WebRequest request) {
-        Map<String, Object> error = new HashMap<>();
-        error.put(STATUS_KEY, HttpStatus.NOT_FOUND.value());
-        error.put(TIMESTAMP_KEY, LocalDateTime.now());
-        error.put(ERROR_KEY, ex.getMessage());
-        error.put(PATH_KEY, request.getDescription(false).replace("uri=", ""));
+        notFoundErrors.increment();
+        Map<String, Object> error = ApiErrors.body(HttpStatus.NOT_FOUND, ex.getMessage(), path(request));
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
@@ -77,11 +111,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ErrorResponseException.class)
     public ResponseEntity<Map<String, Object>> handleErrorResponseException(ErrorResponseException ex,
             WebRequest request) {
-        Map<String, Object> error = new HashMap<>();
-        error.put(STATUS_KEY, ex.getStatusCode().value());
-        error.put(TIMESTAMP_KEY, LocalDateTime.now());
-        error.put(ERROR_KEY, "La URL solicitada no existe o no está disponible.");
-        error.put(PATH_KEY, request.getDescription(false).replace("uri=", ""));
+        Map<String, Object> error = ApiErrors.body(ex.getStatusCode(),
+                "La URL solicitada no existe o no está disponible.", path(request));
         return ResponseEntity.status(ex.getStatusCode()).body(error);
     }
 
@@ -94,11 +125,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex, WebRequest request) {
-        Map<String, Object> error = new HashMap<>();
-        error.put(STATUS_KEY, HttpStatus.BAD_REQUEST.value());
-        error.put(TIMESTAMP_KEY, LocalDateTime.now());
-        error.put(ERROR_KEY, ex.getMessage());
-        error.put(PATH_KEY, request.getDescription(false).replace("uri=", ""));
+        badRequestErrors.increment();
+        Map<String, Object> error = ApiErrors.body(HttpStatus.BAD_REQUEST, ex.getMessage(), path(request));
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
@@ -111,18 +139,16 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneralException(Exception ex, WebRequest request) {
-        String path = request.getDescription(false).replace("uri=", "");
+        String path = path(request);
         if (path.startsWith("/v3/api-docs") || path.startsWith("/swagger-ui")) {
             // Reemplazar RuntimeException genérica con una específica de Spring
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error en documentación Swagger", ex);
         }
+        internalErrors.increment();
         log.error("Error interno del servidor: ", ex);
-        Map<String, Object> error = new HashMap<>();
-        error.put(STATUS_KEY, HttpStatus.INTERNAL_SERVER_ERROR.value());
-        error.put(TIMESTAMP_KEY, LocalDateTime.now());
-        error.put(ERROR_KEY, "Error interno del servidor");
+        Map<String, Object> error = ApiErrors.body(HttpStatus.INTERNAL_SERVER_ERROR, "Error interno del servidor",
+                path);
         error.put(MESSAGE_KEY, "Ha ocurrido un problema inesperado. Por favor, intente más tarde.");
-        error.put(PATH_KEY, path);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
@@ -136,11 +162,82 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(DuplicateResourceException.class)
     public ResponseEntity<Map<String, Object>> handleDuplicateResource(DuplicateResourceException ex,
             WebRequest request) {
-        Map<String, Object> error = new HashMap<>();
-        error.put(STATUS_KEY, HttpStatus.CONFLICT.value());
-        error.put(TIMESTAMP_KEY, LocalDateTime.now());
-        error.put(ERROR_KEY, ex.getMessage());
-        error.put(PATH_KEY, request.getDescription(false).replace("uri=", ""));
+        duplicateErrors.increment();
+        Map<String, Object> error = ApiErrors.body(HttpStatus.CONFLICT, ex.getMessage(), path(request));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Maneja los conflictos de versión al modificar un recurso que otra
+     * petición cambió en el intertanto.
+     *
+     * @param ex      Excepción de conflicto de versión.
+     * @param request Información de la petición.
+     * @return Respuesta con mensaje de conflicto.
+     */
+    @ExceptionHandler({ VersionConflictException.class, ObjectOptimisticLockingFailureException.class })
+    public ResponseEntity<Map<String, Object>> handleVersionConflict(RuntimeException ex, WebRequest request) {
+        conflictErrors.increment();
+        String message = ex instanceof VersionConflictException ? ex.getMessage()
+                : "El recurso fue modificado por otra petición; vuelva a leerlo e intente nuevamente";
+        Map<String, Object> error = ApiErrors.body(HttpStatus.CONFLICT, message, path(request));
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
-}
\ No newline at end of file
+
+    /**
+     * Maneja los tokens de sincronización que superaron el período de
+     * retención de las eliminaciones.
+     *
+     * @param ex      Excepción de token expirado.
+     * @param request Información de la petición.
+     * @return Respuesta 410 indicando que se debe leer el registro completo.
+     */
+    @ExceptionHandler(SyncTokenExpiredException.class)
+    public ResponseEntity<Map<String, Object>> handleSyncTokenExpired(SyncTokenExpiredException ex,
+            WebRequest request) {
+        expiredErrors.increment();
+        Map<String, Object> error = ApiErrors.body(HttpStatus.GONE, ex.getMessage(), path(request));
+        return ResponseEntity.status(HttpStatus.GONE).body(error);
+    }
+
+    /**
+     * Maneja la reutilización de una clave de idempotencia con datos distintos
+     * a los de la petición original.
+     *
+     * @param ex      Excepción de clave de idempotencia reutilizada.
+     * @param request Información de la petición.
+     * @return Respuesta 422 con el mensaje de error.
+     */
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex,
+            WebRequest request) {
+        idempotencyErrors.increment();
+        Map<String, Object> error = ApiErrors.body(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage(), path(request));
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
+
+    /**
+     * Maneja las peticiones que no pueden atenderse porque un recurso interno
+     * aún no está disponible, incluida la falta de conexiones a la base de
+     * datos (al iniciar la transacción o, con la réplica habilitada, al
+     * ejecutar la primera sentencia).
+     *
+     * @param ex      Excepción de servicio no disponible.
+     * @param request Información de la petición.
+     * @return Respuesta 503 con la cabecera Retry-After.
+     */
+    @ExceptionHandler({ ServiceUnavailableException.class, CannotCreateTransactionException.class,
+            DataAccessResourceFailureException.class })
+    public ResponseEntity<Map<String, Object>> handleServiceUnavailable(RuntimeException ex, WebRequest request) {
+        unavailableErrors.increment();
+        if (!(ex instanceof ServiceUnavailableException)) {
+            log.warn("No se pudo obtener una conexión a la base de datos: {}", ex.getMessage());
+        }
+        String message = ex instanceof ServiceUnavailableException ? ex.getMessage()
+                : "La base de datos no está disponible en este momento, intente nuevamente más tarde";
+        Map<String, Object> error = ApiErrors.body(HttpStatus.SERVICE_UNAVAILABLE, message, path(request));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(error);
+    }
+}
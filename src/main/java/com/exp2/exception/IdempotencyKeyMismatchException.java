@@ -0,0 +1,21 @@
+package com.exp2.exception;
+
+/**
+ * Excepción personalizada para indicar que una clave de idempotencia ya se
+ * usó con una petición distinta.
+ * Extiende de {@link RuntimeException} para permitir su uso como excepción no
+ * comprobada.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    /**
+     * Crea una nueva instancia de IdempotencyKeyMismatchException con un
+     * mensaje personalizado.
+     *
+     * @param message Mensaje descriptivo del error.
+     */
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.exp2.exception;
+
+/**
+ * Excepción personalizada para indicar que un recurso interno necesario para
+ * atender la petición todavía no está disponible (por ejemplo, un índice en
+ * memoria que se está construyendo).
+ * Extiende de {@link RuntimeException} para permitir su uso como excepción no
+ * comprobada.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    /**
+     * Crea una nueva instancia de ServiceUnavailableException con un mensaje
+     * personalizado.
+     *
+     * @param message Mensaje descriptivo del error.
+     */
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.exp2.exception;
+
+/**
+ * Excepción personalizada para indicar que un token de sincronización es
+ * anterior al período de retención de las eliminaciones, por lo que ya no es
+ * posible informar todos los cambios desde ese punto y el cliente debe volver
+ * a leer el registro completo.
+ * Extiende de {@link RuntimeException} para permitir su uso como excepción no
+ * comprobada.
+ */
+public class SyncTokenExpiredException extends RuntimeException {
+
+    /**
+     * Crea una nueva instancia de SyncTokenExpiredException con un mensaje
+     * personalizado.
+     *
+     * @param message Mensaje descriptivo del error.
+     */
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+
+}
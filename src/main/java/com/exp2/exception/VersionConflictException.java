@@ -0,0 +1,21 @@
+package com.exp2.exception;
+
+/**
+ * Excepción personalizada para indicar que un recurso fue modificado por otra
+ * petición después de que el cliente leyó la versión que intenta actualizar.
+ * Extiende de {@link RuntimeException} para permitir su uso como excepción no
+ * comprobada.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    /**
+     * Crea una nueva instancia de VersionConflictException con un mensaje
+     * personalizado.
+     *
+     * @param message Mensaje descriptivo del error.
+     */
+    public VersionConflictException(String message) {
+        super(message);
+    }
+
+}
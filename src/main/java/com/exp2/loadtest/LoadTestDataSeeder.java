@@ -0,0 +1,87 @@
+package com.exp2.loadtest;
+
+import com.exp2.dto.BulkImportReport;
+import com.exp2.model.Laboratory;
+import com.exp2.repository.LaboratoryRepository;
+import com.exp2.service.LaboratoryImportService;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generador de datos para el perfil {@code loadtest}.
+ * Al iniciar la aplicación carga {@code laboratory.loadtest.seed-count}
+ * laboratorios válidos en la base embebida a través de la carga masiva. Los
+ * datos son deterministas para una misma semilla, de modo que las pruebas de
+ * carga sean comparables entre ejecuciones. Se ejecuta antes de que se
+ * construyan los índices en memoria y no hace nada si la tabla ya tiene datos.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+public class LoadTestDataSeeder implements ApplicationRunner {
+
+    private static final List<String> PREFIXES = List.of("Laboratorio", "Centro", "Instituto", "Clínica");
+    private static final List<String> QUALIFIERS = List.of("Andes", "Pacífico", "Central", "del Sur", "Norte",
+            "Integral", "San José", "Santa María", "Austral", "Metropolitano");
+    private static final List<String> STREETS = List.of("Av. Providencia", "Av. Libertador Bernardo O'Higgins",
+            "Calle Huérfanos", "Av. Apoquindo", "Av. Vicuña Mackenna", "Calle Merced", "Av. Grecia");
+    private static final List<String> CITIES = List.of("Santiago", "Valparaíso", "Concepción", "La Serena",
+            "Temuco", "Antofagasta", "Puerto Montt");
+    private static final List<String> SPECIALTIES = List.of("Bioquímica", "Microbiología", "Hematología",
+            "Genética", "Inmunología", "Toxicología", "Patología", "Virología", "Parasitología", "Endocrinología");
+
+    private final LaboratoryImportService laboratoryImportService;
+    private final LaboratoryRepository laboratoryRepository;
+    private final int seedCount;
+    private final long randomSeed;
+
+    public LoadTestDataSeeder(LaboratoryImportService laboratoryImportService,
+            LaboratoryRepository laboratoryRepository,
+            @Value("${laboratory.loadtest.seed-count:10000}") int seedCount,
+            @Value("${laboratory.loadtest.random-seed:42}") long randomSeed) {
+        this.laboratoryImportService = laboratoryImportService;
+        this.laboratoryRepository = laboratoryRepository;
+        this.seedCount = seedCount;
+        this.randomSeed = randomSeed;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (laboratoryRepository.count() > 0) {
+            log.info("La base de pruebas de carga ya tiene datos; no se generan laboratorios");
+            return;
+        }
+        long start = System.nanoTime();
+        BulkImportReport report = laboratoryImportService.importLaboratories(generate(), false);
+        log.info("Generados {} laboratorios de prueba ({} inválidos) en {} ms", report.created(), report.invalid(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Iterator<Laboratory> generate() {
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        return IntStream.rangeClosed(1, seedCount).mapToObj(index -> laboratory(random, index)).iterator();
+    }
+
+    private static Laboratory laboratory(SplittableRandom random, int index) {
+        Laboratory laboratory = new Laboratory();
+        laboratory.setName(pick(random, PREFIXES) + " " + pick(random, QUALIFIERS) + " " + index);
+        laboratory.setAddress(pick(random, STREETS) + " " + random.nextInt(1, 10_000) + ", " + pick(random, CITIES));
+        laboratory.setPhone("+569" + random.nextInt(10_000_000, 100_000_000));
+        laboratory.setEmail("contacto" + index + "@laboratorio" + index + ".cl");
+        laboratory.setWebsite("https://laboratorio" + index + ".cl");
+        laboratory.setSpecialty(pick(random, SPECIALTIES));
+        return laboratory;
+    }
+
+    private static String pick(SplittableRandom random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
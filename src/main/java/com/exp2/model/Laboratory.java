@@ -1,8 +1,12 @@
 package com.exp2.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import java.time.Instant;
 import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 
 /**
@@ -12,15 +16,21 @@ import lombok.Data;
  * Aplica restricciones de validación para asegurar la integridad de los datos.
  */
 @Entity
-@Table(name = "tb_laboratories")
+@Table(name = "tb_laboratories", indexes = {
+        @Index(name = "ix_laboratories_specialty", columnList = "specialtyLaboratory, id_laboratory"),
+        @Index(name = "ix_laboratories_updated", columnList = "updatedAtLaboratory, id_laboratory")
+})
 @Data
 public class Laboratory {
 
     /**
      * Identificador único del laboratorio.
+     * Se genera desde una secuencia con optimizador pooled (bloques de 50
+     * valores), lo que permite a Hibernate agrupar los INSERT en lotes JDBC.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "laboratory_seq")
+    @SequenceGenerator(name = "laboratory_seq", sequenceName = "seq_tb_laboratories", allocationSize = 50)
     @Column(name = "id_laboratory")
     private long id;
 
@@ -78,5 +88,53 @@ public class Laboratory {
     @Column(name = "specialtyLaboratory")
     private String specialty;
 
+    /**
+     * Versión del registro, incrementada por Hibernate en cada actualización.
+     * Se usa para el control de concurrencia optimista y para generar el ETag
+     * del laboratorio. Es de solo lectura para los clientes.
+     */
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "versionLaboratory")
+    private Long version;
+
+    /**
+     * Fecha de creación del registro. La asigna Hibernate al insertarlo.
+     */
+    @CreationTimestamp
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "createdAtLaboratory", updatable = false)
+    private Instant createdAt;
 
+    /**
+     * Fecha de la última modificación del registro. La asigna Hibernate en
+     * cada inserción y actualización; la sincronización incremental consulta
+     * los laboratorios modificados a partir de ella.
+     */
+    @UpdateTimestamp
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "updatedAtLaboratory")
+    private Instant updatedAt;
+
+    /**
+     * Crea una copia de este laboratorio desacoplada de cualquier contexto de
+     * persistencia, para compartirla en memoria sin riesgo de modificaciones
+     * posteriores de la entidad gestionada.
+     *
+     * @return Copia con los mismos valores.
+     */
+    public Laboratory copy() {
+        Laboratory copy = new Laboratory();
+        copy.setId(id);
+        copy.setName(name);
+        copy.setAddress(address);
+        copy.setPhone(phone);
+        copy.setEmail(email);
+        copy.setWebsite(website);
+        copy.setSpecialty(specialty);
+        copy.setVersion(version);
+        copy.setCreatedAt(createdAt);
+        copy.setUpdatedAt(updatedAt);
+        return copy;
+    }
 }
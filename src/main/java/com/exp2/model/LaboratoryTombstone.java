@@ -0,0 +1,40 @@
+package com.exp2.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Registro de un laboratorio eliminado, conservado para que la
+ * sincronización incremental informe la eliminación a los clientes.
+ * Los laboratorios se siguen eliminando físicamente de
+ * {@code tb_laboratories}; las marcas se purgan pasado el período de
+ * retención configurado.
+ */
+@Entity
+@Table(name = "tb_laboratory_tombstones", indexes = {
+        @Index(name = "ix_tombstones_deleted", columnList = "deletedAtLaboratory, id_laboratory")
+})
+@Data
+@NoArgsConstructor
+public class LaboratoryTombstone {
+
+    /**
+     * ID del laboratorio eliminado.
+     */
+    @Id
+    @Column(name = "id_laboratory")
+    private long id;
+
+    /**
+     * Fecha de la eliminación.
+     */
+    @Column(name = "deletedAtLaboratory", nullable = false)
+    private Instant deletedAt;
+
+    public LaboratoryTombstone(long id, Instant deletedAt) {
+        this.id = id;
+        this.deletedAt = deletedAt;
+    }
+}
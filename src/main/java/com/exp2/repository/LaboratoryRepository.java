@@ -1,17 +1,34 @@
 package com.exp2.repository;
 
+import com.exp2.dto.LaboratoryNameView;
 import com.exp2.model.Laboratory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio JPA para la entidad {@link Laboratory}.
  * Proporciona métodos CRUD y consultas personalizadas para laboratorios.
  */
 @Repository
-public interface LaboratoryRepository extends JpaRepository<Laboratory, Long> {
+public interface LaboratoryRepository extends JpaRepository<Laboratory, Long>, LaboratoryRepositoryCustom {
+
+    /**
+     * Máximo de elementos permitidos por Oracle en una lista IN. Las
+     * consultas por lista de nombres o de IDs deben dividirse en bloques de
+     * a lo sumo este tamaño.
+     */
+    int MAX_IN_LIST_SIZE = 1000;
 
     /**
      * Busca laboratorios por especialidad exacta.
@@ -30,6 +47,17 @@ public interface LaboratoryRepository extends JpaRepository<Laboratory, Long> {
      */
     List<Laboratory> findByNameContainingIgnoreCase(String name);
 
+    /**
+     * Busca los laboratorios cuyo nombre coincide exactamente con alguno de los
+     * indicados. La colección no debe superar los
+     * {@value #MAX_IN_LIST_SIZE} elementos admitidos por Oracle en una lista
+     * IN.
+     *
+     * @param names Nombres a buscar.
+     * @return Lista de laboratorios encontrados.
+     */
+    List<Laboratory> findByNameIn(Collection<String> names);
+
     /**
      * Busca un laboratorio por su ID.
      *
@@ -37,4 +65,86 @@ public interface LaboratoryRepository extends JpaRepository<Laboratory, Long> {
      * @return Un Optional con el laboratorio encontrado o vacío si no existe.
      */
     Optional<Laboratory> findById(Long id);
+
+    /**
+     * Obtiene una página de laboratorios posteriores al ID indicado (paginación
+     * keyset). Al filtrar por {@code id_laboratory > :afterId} sobre la clave
+     * primaria, el costo de la consulta no depende de la profundidad de la
+     * página, a diferencia de OFFSET.
+     *
+     * @param afterId   ID del último laboratorio de la página anterior (0 para
+     *                  la primera página).
+     * @param specialty Especialidad exacta a filtrar, o {@code null} para no
+     *                  filtrar.
+     * @param name      Patrón LIKE ya escapado para filtrar por nombre sin
+     *                  distinguir mayúsculas/minúsculas, o {@code null}.
+     * @param limit     Cantidad máxima de filas a devolver.
+     * @return Lista de laboratorios ordenada por ID ascendente.
+     */
+    @Query("SELECT l FROM Laboratory l WHERE l.id > :afterId "
+            + "AND (:specialty IS NULL OR l.specialty = :specialty) "
+            + "AND (:name IS NULL OR UPPER(l.name) LIKE UPPER(:name) ESCAPE '\\') "
+            + "ORDER BY l.id ASC")
+    List<Laboratory> findPageAfter(@Param("afterId") long afterId,
+            @Param("specialty") String specialty,
+            @Param("name") String name,
+            Limit limit);
+
+    /**
+     * Obtiene los laboratorios creados o modificados después de la posición
+     * indicada, ordenados por fecha de modificación e ID, hasta la fecha
+     * límite. Usa el índice {@code (updatedAtLaboratory, id_laboratory)}, por
+     * lo que el costo depende de la cantidad de cambios y no del tamaño de la
+     * tabla.
+     *
+     * @param afterAt Fecha de modificación del último laboratorio ya
+     *                entregado.
+     * @param afterId ID del último laboratorio ya entregado con esa fecha.
+     * @param until   Fecha máxima (inclusive) a considerar.
+     * @param limit   Cantidad máxima de filas a devolver.
+     * @return Laboratorios modificados en orden de fecha e ID.
+     */
+    @Query("SELECT l FROM Laboratory l "
+            + "WHERE (l.updatedAt > :afterAt OR (l.updatedAt = :afterAt AND l.id > :afterId)) "
+            + "AND l.updatedAt <= :until ORDER BY l.updatedAt ASC, l.id ASC")
+    List<Laboratory> findModifiedSince(@Param("afterAt") Instant afterAt, @Param("afterId") long afterId,
+            @Param("until") Instant until, Limit limit);
+
+    /**
+     * Recorre todos los laboratorios ordenados por ID como un {@link Stream}
+     * respaldado por un cursor JDBC, sin cargar la tabla completa en memoria.
+     * Debe consumirse dentro de una transacción y cerrarse al finalizar.
+     *
+     * @return Stream de laboratorios ordenados por ID ascendente.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM Laboratory l ORDER BY l.id ASC")
+    Stream<Laboratory> streamAllOrderedById();
+
+    /**
+     * Busca los pares ID/nombre cuyo nombre comienza con el prefijo indicado,
+     * en orden alfabético sin distinguir mayúsculas/minúsculas. Se usa solo
+     * mientras el índice de autocompletado en memoria no está disponible.
+     *
+     * @param prefix Patrón LIKE de prefijo ya escapado y en mayúsculas.
+     * @param limit  Cantidad máxima de filas a devolver.
+     * @return Pares ID/nombre ordenados alfabéticamente.
+     */
+    @Query("SELECT new com.exp2.dto.LaboratoryNameView(l.id, l.name) FROM Laboratory l "
+            + "WHERE UPPER(l.name) LIKE :prefix ESCAPE '\\' ORDER BY UPPER(l.name) ASC, l.id ASC")
+    List<LaboratoryNameView> findNamesByPrefix(@Param("prefix") String prefix, Limit limit);
+
+    /**
+     * Recorre el ID y el nombre de todos los laboratorios sin cargar las
+     * entidades completas. Se utiliza para construir índices en memoria al
+     * iniciar la aplicación. Debe consumirse dentro de una transacción.
+     *
+     * @return Stream de pares ID/nombre ordenados por ID.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.exp2.dto.LaboratoryNameView(l.id, l.name) FROM Laboratory l ORDER BY l.id ASC")
+    Stream<LaboratoryNameView> streamAllNames();
 }
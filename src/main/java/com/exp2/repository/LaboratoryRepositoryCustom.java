@@ -0,0 +1,47 @@
+package com.exp2.repository;
+
+import com.exp2.dto.LaboratoryField;
+import com.exp2.dto.LaboratoryPatch;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Operaciones del repositorio de laboratorios implementadas manualmente con
+ * la API de Criteria.
+ */
+public interface LaboratoryRepositoryCustom {
+
+    /**
+     * Aplica los campos presentes en el cambio con una única sentencia
+     * {@code UPDATE ... WHERE id = ? AND version = ?}, incrementando la
+     * versión y registrando la fecha de modificación. No sincroniza el
+     * contexto de persistencia.
+     *
+     * @param id        ID del laboratorio.
+     * @param version   Versión esperada del laboratorio.
+     * @param patch     Campos a modificar.
+     * @param updatedAt Fecha de modificación a registrar.
+     * @return Cantidad de filas actualizadas (0 si el laboratorio no existe o
+     *         su versión es distinta).
+     */
+    int patch(long id, long version, LaboratoryPatch patch, Instant updatedAt);
+
+    /**
+     * Variante de {@link LaboratoryRepository#findPageAfter} que selecciona
+     * solo las columnas de los campos indicados, sin crear entidades.
+     *
+     * @param afterId   ID del último laboratorio de la página anterior (0 para
+     *                  la primera página).
+     * @param specialty Especialidad exacta a filtrar, o {@code null}.
+     * @param name      Patrón LIKE ya escapado para filtrar por nombre sin
+     *                  distinguir mayúsculas/minúsculas, o {@code null}.
+     * @param limit     Cantidad máxima de filas a devolver.
+     * @param fields    Campos a seleccionar; deben incluir el ID.
+     * @return Valores de cada fila por nombre de propiedad, ordenadas por ID
+     *         ascendente.
+     */
+    List<Map<String, Object>> findPageAfter(long afterId, String specialty, String name, int limit,
+            Set<LaboratoryField> fields);
+}
@@ -0,0 +1,96 @@
+package com.exp2.repository;
+
+import com.exp2.dto.LaboratoryField;
+import com.exp2.dto.LaboratoryPatch;
+import com.exp2.model.Laboratory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementación de {@link LaboratoryRepositoryCustom}.
+ */
+class LaboratoryRepositoryImpl implements LaboratoryRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    LaboratoryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int patch(long id, long version, LaboratoryPatch patch, Instant updatedAt) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Laboratory> update = cb.createCriteriaUpdate(Laboratory.class);
+        Root<Laboratory> root = update.from(Laboratory.class);
+        setIfPresent(update, root, "name", patch.name());
+        setIfPresent(update, root, "address", patch.address());
+        setIfPresent(update, root, "phone", patch.phone());
+        setIfPresent(update, root, "email", patch.email());
+        setIfPresent(update, root, "website", patch.website());
+        setIfPresent(update, root, "specialty", patch.specialty());
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.set(root.<Instant>get("updatedAt"), updatedAt);
+        update.where(cb.equal(root.get("id"), id), cb.equal(root.get("version"), version));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<Map<String, Object>> findPageAfter(long afterId, String specialty, String name, int limit,
+            Set<LaboratoryField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Laboratory> root = query.from(Laboratory.class);
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (LaboratoryField field : fields) {
+            selections.add(root.get(field.attribute()).alias(field.attribute()));
+        }
+        query.multiselect(selections);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(root.<Long>get("id"), afterId));
+        if (specialty != null) {
+            predicates.add(cb.equal(root.get("specialty"), specialty));
+        }
+        ParameterExpression<String> namePattern = cb.parameter(String.class, "name");
+        if (name != null) {
+            predicates.add(cb.like(cb.upper(root.<String>get("name")), cb.upper(namePattern), '\\'));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(root.get("id")));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query).setMaxResults(limit);
+        if (name != null) {
+            typedQuery.setParameter(namePattern, name);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (LaboratoryField field : fields) {
+                row.put(field.attribute(), tuple.get(field.attribute()));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static void setIfPresent(CriteriaUpdate<Laboratory> update, Root<Laboratory> root, String attribute,
+            String value) {
+        if (value != null) {
+            update.set(root.<String>get(attribute), value);
+        }
+    }
+}
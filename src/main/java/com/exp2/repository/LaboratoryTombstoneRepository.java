@@ -0,0 +1,46 @@
+package com.exp2.repository;
+
+import com.exp2.model.LaboratoryTombstone;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio JPA para las marcas de laboratorios eliminados
+ * ({@link LaboratoryTombstone}).
+ */
+@Repository
+public interface LaboratoryTombstoneRepository extends JpaRepository<LaboratoryTombstone, Long> {
+
+    /**
+     * Obtiene las eliminaciones posteriores a la posición indicada, ordenadas
+     * por fecha e ID, hasta la fecha límite. Usa el índice
+     * {@code (deletedAtLaboratory, id_laboratory)}.
+     *
+     * @param afterAt Fecha de la última eliminación ya entregada.
+     * @param afterId ID de la última eliminación ya entregada con esa fecha.
+     * @param until   Fecha máxima (inclusive) a considerar.
+     * @param limit   Cantidad máxima de filas a devolver.
+     * @return Marcas de eliminación en orden de fecha e ID.
+     */
+    @Query("SELECT t FROM LaboratoryTombstone t "
+            + "WHERE (t.deletedAt > :afterAt OR (t.deletedAt = :afterAt AND t.id > :afterId)) "
+            + "AND t.deletedAt <= :until ORDER BY t.deletedAt ASC, t.id ASC")
+    List<LaboratoryTombstone> findDeletedSince(@Param("afterAt") Instant afterAt, @Param("afterId") long afterId,
+            @Param("until") Instant until, Limit limit);
+
+    /**
+     * Elimina las marcas anteriores a la fecha indicada.
+     *
+     * @param before Fecha límite (exclusiva).
+     * @return Cantidad de marcas eliminadas.
+     */
+    @Modifying
+    @Query("DELETE FROM LaboratoryTombstone t WHERE t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
@@ -0,0 +1,255 @@
+package com.exp2.search;
+
+import com.exp2.event.LaboratoryChangedEvent;
+import com.exp2.model.Laboratory;
+import com.exp2.repository.LaboratoryRepository;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Índice invertido en memoria para la búsqueda de texto completo sobre el
+ * nombre, la dirección y la especialidad de los laboratorios.
+ * Cada término normalizado con {@link TextNormalizer} apunta a los
+ * laboratorios que lo contienen junto con el peso acumulado de los campos en
+ * que aparece. El puntaje de un laboratorio es la suma, para cada término de
+ * la consulta, de ese peso multiplicado por la rareza del término (IDF). Solo
+ * se recorren las listas de los términos consultados y los mejores resultados
+ * se seleccionan con un montículo acotado, sin ordenar todas las
+ * coincidencias.
+ * El índice se construye al iniciar la aplicación y se mantiene sincronizado
+ * con los {@link LaboratoryChangedEvent} publicados por el servicio.
+ */
+@Slf4j
+@Component
+public class LaboratoryTextIndex {
+
+    private static final int LOAD_CLEAR_INTERVAL = 1000;
+
+    private final LaboratoryRepository laboratoryRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final float nameWeight;
+    private final float specialtyWeight;
+    private final float addressWeight;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private final Map<Long, Set<String>> termsById = new HashMap<>();
+    private final Set<Long> touchedDuringLoad = new HashSet<>();
+    private volatile boolean ready;
+    private boolean loading;
+
+    public LaboratoryTextIndex(LaboratoryRepository laboratoryRepository, EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${laboratory.search.weight.name:3.0}") float nameWeight,
+            @Value("${laboratory.search.weight.specialty:2.0}") float specialtyWeight,
+            @Value("${laboratory.search.weight.address:1.0}") float addressWeight) {
+        this.laboratoryRepository = laboratoryRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.nameWeight = nameWeight;
+        this.specialtyWeight = specialtyWeight;
+        this.addressWeight = addressWeight;
+    }
+
+    /**
+     * Construye el índice recorriendo todos los laboratorios de la base de
+     * datos. Las escrituras que llegan durante la carga tienen prioridad sobre
+     * los datos leídos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        withWriteLock(() -> loading = true);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Laboratory> laboratories = laboratoryRepository.streamAllOrderedById()) {
+                    List<Laboratory> batch = new ArrayList<>(LOAD_CLEAR_INTERVAL);
+                    Iterator<Laboratory> iterator = laboratories.iterator();
+                    while (iterator.hasNext()) {
+                        batch.add(iterator.next());
+                        if (batch.size() == LOAD_CLEAR_INTERVAL) {
+                            addLoadedBatch(batch);
+                        }
+                    }
+                    addLoadedBatch(batch);
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.error("No se pudo construir el índice de texto completo", ex);
+            withWriteLock(() -> loading = false);
+            return;
+        }
+        withWriteLock(() -> {
+            loading = false;
+            touchedDuringLoad.clear();
+            ready = true;
+        });
+        log.info("Índice de texto completo construido con {} laboratorios y {} términos en {} ms",
+                termsById.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void addLoadedBatch(List<Laboratory> batch) {
+        withWriteLock(() -> batch.stream()
+                .filter(laboratory -> !touchedDuringLoad.contains(laboratory.getId()))
+                .forEach(this::add));
+        batch.clear();
+        entityManager.clear();
+    }
+
+    /**
+     * Aplica al índice un cambio confirmado en la base de datos.
+     *
+     * @param event Evento de cambio del laboratorio.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLaboratoryChanged(LaboratoryChangedEvent event) {
+        withWriteLock(() -> {
+            if (loading) {
+                touchedDuringLoad.add(event.id());
+            }
+            remove(event.id());
+            if (event.current() != null) {
+                add(event.current());
+            }
+        });
+    }
+
+    /**
+     * Busca los laboratorios más relevantes para la consulta.
+     *
+     * @param query Texto de la consulta.
+     * @param topK  Cantidad máxima de resultados a devolver.
+     * @return Resultado con los mejores IDs ordenados por relevancia y el total
+     *         de coincidencias, o vacío si el índice aún no está disponible.
+     */
+    public Optional<RankedIds> search(String query, int topK) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Set<String> queryTerms = TextNormalizer.terms(query);
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+            int documents = termsById.size();
+            for (String term : queryTerms) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1.0 + (double) documents / posting.size());
+                posting.forEach((id, weight) -> scores.merge(id, weight * idf, Double::sum));
+            }
+            return Optional.of(new RankedIds(topK(scores, topK), scores.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Selecciona los {@code k} mejores puntajes con un montículo mínimo de
+     * tamaño {@code k}; ante empates se prefiere el ID menor.
+     */
+    private static List<ScoredId> topK(Map<Long, Double> scores, int k) {
+        if (k <= 0 || scores.isEmpty()) {
+            return List.of();
+        }
+        PriorityQueue<ScoredId> heap = new PriorityQueue<>(Math.min(k, scores.size()) + 1);
+        scores.forEach((id, score) -> {
+            ScoredId candidate = new ScoredId(id, score);
+            if (heap.size() < k) {
+                heap.add(candidate);
+            } else if (candidate.compareTo(heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        });
+        List<ScoredId> ranked = new ArrayList<>(heap);
+        ranked.sort(Collections.reverseOrder());
+        return ranked;
+    }
+
+    private void add(Laboratory laboratory) {
+        Map<String, Float> weights = new HashMap<>();
+        TextNormalizer.terms(laboratory.getName()).forEach(term -> weights.merge(term, nameWeight, Float::sum));
+        TextNormalizer.terms(laboratory.getSpecialty())
+                .forEach(term -> weights.merge(term, specialtyWeight, Float::sum));
+        TextNormalizer.terms(laboratory.getAddress()).forEach(term -> weights.merge(term, addressWeight, Float::sum));
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new HashMap<>())
+                .put(laboratory.getId(), weight));
+        termsById.put(laboratory.getId(), weights.keySet());
+    }
+
+    private void remove(long id) {
+        Set<String> terms = termsById.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ID de laboratorio con su puntaje; el orden natural va de menor a mayor
+     * relevancia.
+     *
+     * @param id    ID del laboratorio.
+     * @param score Puntaje de relevancia.
+     */
+    public record ScoredId(long id, double score) implements Comparable<ScoredId> {
+
+        @Override
+        public int compareTo(ScoredId other) {
+            int cmp = Double.compare(score, other.score);
+            return cmp != 0 ? cmp : Long.compare(other.id, id);
+        }
+    }
+
+    /**
+     * Resultado de una búsqueda en el índice.
+     *
+     * @param hits  Mejores IDs ordenados por relevancia descendente.
+     * @param total Cantidad total de laboratorios que coinciden.
+     */
+    public record RankedIds(List<ScoredId> hits, int total) {
+    }
+}
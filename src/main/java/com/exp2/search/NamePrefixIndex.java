@@ -0,0 +1,341 @@
+package com.exp2.search;
+
+import com.exp2.dto.LaboratoryNameView;
+import com.exp2.event.LaboratoryChangedEvent;
+import com.exp2.model.Laboratory;
+import com.exp2.repository.LaboratoryRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Índice de prefijos en memoria sobre el nombre de los laboratorios, usado
+ * para el autocompletado.
+ * Los nombres se guardan en arreglos ordenados (claves en mayúsculas, IDs
+ * primitivos y nombres originales), sin objetos por entrada, y se consultan
+ * con búsqueda binaria. Los arreglos nunca se modifican: cada escritura
+ * publica una nueva {@link Snapshot} mediante un campo volátil, por lo que las
+ * lecturas no usan bloqueos.
+ * Para que las escrituras no copien el índice completo, los cambios se
+ * acumulan en un delta ordenado pequeño (altas) y una lista de IDs eliminados
+ * de la base; cuando ambos superan el umbral configurado se fusionan en una
+ * nueva base.
+ */
+@Slf4j
+@Component
+public class NamePrefixIndex {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key).thenComparingLong(Entry::id);
+
+    private final LaboratoryRepository laboratoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int compactionThreshold;
+
+    /**
+     * Nombre normalizado de cada ID indexado; solo lo usan los escritores.
+     */
+    private final Map<Long, String> keysById = new HashMap<>();
+    private final Set<Long> touchedDuringLoad = new HashSet<>();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean ready;
+    private boolean loading;
+
+    public NamePrefixIndex(LaboratoryRepository laboratoryRepository, PlatformTransactionManager transactionManager,
+            @Value("${laboratory.autocomplete.compaction-threshold:1024}") int compactionThreshold) {
+        this.laboratoryRepository = laboratoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Construye la base del índice con todos los nombres de la base de datos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            loading = true;
+        }
+        List<LaboratoryNameView> views;
+        try {
+            views = readOnlyTransaction.execute(status -> {
+                try (Stream<LaboratoryNameView> names = laboratoryRepository.streamAllNames()) {
+                    return names.toList();
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.error("No se pudo construir el índice de autocompletado; se usará la base de datos", ex);
+            synchronized (this) {
+                loading = false;
+            }
+            return;
+        }
+        synchronized (this) {
+            List<Entry> entries = new ArrayList<>(views.size() + keysById.size());
+            for (LaboratoryNameView view : views) {
+                if (view.name() != null && !touchedDuringLoad.contains(view.id())) {
+                    String key = normalize(view.name());
+                    keysById.put(view.id(), key);
+                    entries.add(new Entry(key, view.id(), view.name()));
+                }
+            }
+            entries.addAll(snapshot.liveEntries());
+            snapshot = Snapshot.of(entries);
+            touchedDuringLoad.clear();
+            loading = false;
+            ready = true;
+        }
+        log.info("Índice de autocompletado construido con {} laboratorios en {} ms", views.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Aplica al índice un cambio confirmado en la base de datos.
+     *
+     * @param event Evento de cambio del laboratorio.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onLaboratoryChanged(LaboratoryChangedEvent event) {
+        if (loading) {
+            touchedDuringLoad.add(event.id());
+        }
+        Snapshot next = snapshot;
+        String previousKey = keysById.remove(event.id());
+        if (previousKey != null) {
+            next = next.without(previousKey, event.id());
+        }
+        Laboratory current = event.current();
+        if (current != null && current.getName() != null) {
+            String key = normalize(current.getName());
+            keysById.put(current.getId(), key);
+            next = next.with(new Entry(key, current.getId(), current.getName()));
+        }
+        if (next.pendingChanges() > compactionThreshold) {
+            next = Snapshot.of(next.liveEntries());
+        }
+        snapshot = next;
+    }
+
+    /**
+     * Obtiene los primeros laboratorios, en orden alfabético, cuyo nombre
+     * comienza con el prefijo indicado sin distinguir mayúsculas/minúsculas.
+     *
+     * @param prefix Prefijo a buscar.
+     * @param limit  Cantidad máxima de resultados.
+     * @return Pares ID/nombre encontrados, o vacío si el índice aún no está
+     *         disponible.
+     */
+    public Optional<List<LaboratoryNameView>> complete(String prefix, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.of(snapshot.complete(normalize(prefix), limit));
+    }
+
+    private static String normalize(String value) {
+        return value.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Entrada del índice usada solo al construir o fusionar arreglos.
+     */
+    private record Entry(String key, long id, String name) {
+    }
+
+    /**
+     * Estado inmutable del índice: una base ordenada, un delta ordenado de
+     * altas recientes y los IDs de la base que fueron eliminados.
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new String[0], new long[0], new String[0],
+                new String[0], new long[0], new String[0], new long[0]);
+
+        private final String[] baseKeys;
+        private final long[] baseIds;
+        private final String[] baseNames;
+        private final String[] deltaKeys;
+        private final long[] deltaIds;
+        private final String[] deltaNames;
+        private final long[] removedIds;
+
+        private Snapshot(String[] baseKeys, long[] baseIds, String[] baseNames, String[] deltaKeys,
+                long[] deltaIds, String[] deltaNames, long[] removedIds) {
+            this.baseKeys = baseKeys;
+            this.baseIds = baseIds;
+            this.baseNames = baseNames;
+            this.deltaKeys = deltaKeys;
+            this.deltaIds = deltaIds;
+            this.deltaNames = deltaNames;
+            this.removedIds = removedIds;
+        }
+
+        static Snapshot of(List<Entry> entries) {
+            Entry[] sorted = entries.toArray(Entry[]::new);
+            Arrays.sort(sorted, ORDER);
+            String[] keys = new String[sorted.length];
+            long[] ids = new long[sorted.length];
+            String[] names = new String[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = sorted[i].key();
+                ids[i] = sorted[i].id();
+                names[i] = sorted[i].name().equals(keys[i]) ? keys[i] : sorted[i].name();
+            }
+            return new Snapshot(keys, ids, names, EMPTY.deltaKeys, EMPTY.deltaIds, EMPTY.deltaNames,
+                    EMPTY.removedIds);
+        }
+
+        int pendingChanges() {
+            return deltaKeys.length + removedIds.length;
+        }
+
+        Snapshot with(Entry entry) {
+            int index = -(indexOf(deltaKeys, deltaIds, entry.key(), entry.id()) + 1);
+            return new Snapshot(baseKeys, baseIds, baseNames,
+                    insert(deltaKeys, index, entry.key()), insert(deltaIds, index, entry.id()),
+                    insert(deltaNames, index, entry.name()), removedIds);
+        }
+
+        Snapshot without(String key, long id) {
+            int deltaIndex = indexOf(deltaKeys, deltaIds, key, id);
+            if (deltaIndex >= 0) {
+                return new Snapshot(baseKeys, baseIds, baseNames, delete(deltaKeys, deltaIndex),
+                        delete(deltaIds, deltaIndex), delete(deltaNames, deltaIndex), removedIds);
+            }
+            int removedIndex = Arrays.binarySearch(removedIds, id);
+            if (removedIndex >= 0 || indexOf(baseKeys, baseIds, key, id) < 0) {
+                return this;
+            }
+            return new Snapshot(baseKeys, baseIds, baseNames, deltaKeys, deltaIds, deltaNames,
+                    insert(removedIds, -(removedIndex + 1), id));
+        }
+
+        List<Entry> liveEntries() {
+            List<Entry> entries = new ArrayList<>(baseKeys.length + deltaKeys.length);
+            for (int i = 0; i < baseKeys.length; i++) {
+                if (Arrays.binarySearch(removedIds, baseIds[i]) < 0) {
+                    entries.add(new Entry(baseKeys[i], baseIds[i], baseNames[i]));
+                }
+            }
+            for (int i = 0; i < deltaKeys.length; i++) {
+                entries.add(new Entry(deltaKeys[i], deltaIds[i], deltaNames[i]));
+            }
+            return entries;
+        }
+
+        /**
+         * Recorre en paralelo el rango del prefijo en la base y en el delta,
+         * mezclando ambos en orden y omitiendo los IDs eliminados.
+         */
+        List<LaboratoryNameView> complete(String prefix, int limit) {
+            List<LaboratoryNameView> result = new ArrayList<>(Math.min(limit, 16));
+            int b = lowerBound(baseKeys, prefix);
+            int d = lowerBound(deltaKeys, prefix);
+            while (result.size() < limit) {
+                boolean baseMatches = b < baseKeys.length && baseKeys[b].startsWith(prefix);
+                boolean deltaMatches = d < deltaKeys.length && deltaKeys[d].startsWith(prefix);
+                if (!baseMatches && !deltaMatches) {
+                    break;
+                }
+                boolean takeBase = baseMatches && (!deltaMatches
+                        || compare(baseKeys[b], baseIds[b], deltaKeys[d], deltaIds[d]) < 0);
+                if (takeBase) {
+                    if (Arrays.binarySearch(removedIds, baseIds[b]) < 0) {
+                        result.add(new LaboratoryNameView(baseIds[b], baseNames[b]));
+                    }
+                    b++;
+                } else {
+                    result.add(new LaboratoryNameView(deltaIds[d], deltaNames[d]));
+                    d++;
+                }
+            }
+            return result;
+        }
+
+        private static int lowerBound(String[] keys, String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static int indexOf(String[] keys, long[] ids, String key, long id) {
+            int low = 0;
+            int high = keys.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(keys[mid], ids[mid], key, id);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private static int compare(String leftKey, long leftId, String rightKey, long rightId) {
+            int cmp = leftKey.compareTo(rightKey);
+            return cmp != 0 ? cmp : Long.compare(leftId, rightId);
+        }
+
+        private static String[] insert(String[] array, int index, String value) {
+            String[] copy = new String[array.length + 1];
+            System.arraycopy(array, 0, copy, 0, index);
+            copy[index] = value;
+            System.arraycopy(array, index, copy, index + 1, array.length - index);
+            return copy;
+        }
+
+        private static long[] insert(long[] array, int index, long value) {
+            long[] copy = new long[array.length + 1];
+            System.arraycopy(array, 0, copy, 0, index);
+            copy[index] = value;
+            System.arraycopy(array, index, copy, index + 1, array.length - index);
+            return copy;
+        }
+
+        private static String[] delete(String[] array, int index) {
+            String[] copy = new String[array.length - 1];
+            System.arraycopy(array, 0, copy, 0, index);
+            System.arraycopy(array, index + 1, copy, index, array.length - index - 1);
+            return copy;
+        }
+
+        private static long[] delete(long[] array, int index) {
+            long[] copy = new long[array.length - 1];
+            System.arraycopy(array, 0, copy, 0, index);
+            System.arraycopy(array, index + 1, copy, index, array.length - index - 1);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.exp2.search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto para la búsqueda de texto completo.
+ * Elimina tildes y diacríticos, convierte a minúsculas y divide el texto en
+ * términos alfanuméricos, de modo que "Bioquímica" y "BIOQUIMICA" generan el
+ * mismo término.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Divide el texto en términos normalizados y sin repetir, en el orden en
+     * que aparecen.
+     *
+     * @param text Texto a procesar (puede ser {@code null}).
+     * @return Términos normalizados de al menos dos caracteres.
+     */
+    public static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String term : SEPARATORS.split(folded)) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
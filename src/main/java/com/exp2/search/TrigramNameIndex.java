@@ -0,0 +1,277 @@
+package com.exp2.search;
+
+import com.exp2.dto.LaboratoryNameView;
+import com.exp2.event.LaboratoryChangedEvent;
+import com.exp2.model.Laboratory;
+import com.exp2.repository.LaboratoryRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Índice invertido de trigramas en memoria sobre el nombre de los
+ * laboratorios, para resolver búsquedas parciales sin recorrer la tabla.
+ * Cada nombre se normaliza a mayúsculas (igual que {@code UPPER} en la
+ * consulta original) y se descompone en todas sus subcadenas de 1, 2 y 3
+ * caracteres, cuyas listas de IDs se mantienen ordenadas. Una consulta de hasta
+ * 3 caracteres es exactamente una de esas subcadenas; una más larga intersecta
+ * las listas de sus trigramas y verifica los candidatos con
+ * {@link String#contains(CharSequence)}, por lo que el resultado coincide con
+ * la semántica "contiene, sin distinguir mayúsculas/minúsculas".
+ * El índice se construye al iniciar la aplicación y se mantiene sincronizado
+ * con los {@link LaboratoryChangedEvent} publicados por el servicio. Mientras
+ * no esté listo, {@link #search(String, int)} devuelve vacío y el llamador debe
+ * consultar la base de datos.
+ */
+@Slf4j
+@Component
+public class TrigramNameIndex {
+
+    private static final int MAX_GRAM = 3;
+    private static final int LOAD_BATCH = 1000;
+
+    private final LaboratoryRepository laboratoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, String> namesById = new TreeMap<>();
+    private final Map<String, NavigableSet<Long>> postings = new HashMap<>();
+    private final Set<Long> touchedDuringLoad = new HashSet<>();
+    private volatile boolean ready;
+    private boolean loading;
+
+    public TrigramNameIndex(LaboratoryRepository laboratoryRepository, PlatformTransactionManager transactionManager) {
+        this.laboratoryRepository = laboratoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Construye el índice a partir de todos los nombres de la base de datos.
+     * Las escrituras que llegan durante la carga tienen prioridad sobre los
+     * datos leídos, para no reintroducir valores obsoletos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        withWriteLock(() -> loading = true);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<LaboratoryNameView> names = laboratoryRepository.streamAllNames()) {
+                    List<LaboratoryNameView> batch = new ArrayList<>(LOAD_BATCH);
+                    Iterator<LaboratoryNameView> iterator = names.iterator();
+                    while (iterator.hasNext()) {
+                        batch.add(iterator.next());
+                        if (batch.size() == LOAD_BATCH) {
+                            addLoadedBatch(batch);
+                            batch.clear();
+                        }
+                    }
+                    addLoadedBatch(batch);
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.error("No se pudo construir el índice de trigramas; las búsquedas usarán la base de datos", ex);
+            withWriteLock(() -> loading = false);
+            return;
+        }
+        withWriteLock(() -> {
+            loading = false;
+            touchedDuringLoad.clear();
+            ready = true;
+        });
+        log.info("Índice de trigramas construido con {} laboratorios en {} ms", size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void addLoadedBatch(List<LaboratoryNameView> batch) {
+        withWriteLock(() -> batch.stream()
+                .filter(view -> !touchedDuringLoad.contains(view.id()))
+                .forEach(view -> add(view.id(), view.name())));
+    }
+
+    /**
+     * Aplica al índice un cambio confirmado en la base de datos.
+     *
+     * @param event Evento de cambio del laboratorio.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLaboratoryChanged(LaboratoryChangedEvent event) {
+        Laboratory current = event.current();
+        withWriteLock(() -> {
+            if (loading) {
+                touchedDuringLoad.add(event.id());
+            }
+            remove(event.id());
+            if (current != null) {
+                add(current.getId(), current.getName());
+            }
+        });
+    }
+
+    /**
+     * Busca los IDs de los laboratorios cuyo nombre contiene el texto indicado,
+     * sin distinguir mayúsculas/minúsculas.
+     * Los candidatos se recorren en orden de ID y la búsqueda se detiene al
+     * reunir {@code limit} coincidencias, de modo que el costo depende del
+     * límite y de la selectividad de la consulta y no del tamaño de la tabla.
+     *
+     * @param query Texto a buscar.
+     * @param limit Cantidad máxima de IDs a devolver.
+     * @return IDs coincidentes ordenados de forma ascendente, o vacío si el
+     *         índice aún no está disponible.
+     */
+    public Optional<List<Long>> search(String query, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        String needle = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (needle.isEmpty()) {
+                return Optional.of(namesById.keySet().stream().limit(limit).toList());
+            }
+            return Optional.of(matches(needle, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de laboratorios indexados.
+     *
+     * @return Cantidad de nombres en el índice.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return namesById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recorre en orden la lista más corta de la consulta y comprueba cada ID
+     * contra las demás, hasta reunir {@code limit} coincidencias.
+     */
+    private List<Long> matches(String needle, int limit) {
+        List<NavigableSet<Long>> lists = new ArrayList<>();
+        for (String gram : queryGrams(needle)) {
+            NavigableSet<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        boolean exact = needle.length() <= MAX_GRAM;
+        List<Long> result = new ArrayList<>(Math.min(limit, lists.get(0).size()));
+        for (Long id : lists.get(0)) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (containsAll(lists, id) && (exact || namesById.get(id).contains(needle))) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static boolean containsAll(List<NavigableSet<Long>> lists, Long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(long id, String name) {
+        if (name == null) {
+            return;
+        }
+        String normalized = normalize(name);
+        namesById.put(id, normalized);
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, key -> new TreeSet<>()).add(id);
+        }
+    }
+
+    private void remove(long id) {
+        String normalized = namesById.remove(id);
+        if (normalized == null) {
+            return;
+        }
+        for (String gram : grams(normalized)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null && posting.remove(id) && posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Subcadenas de 1 a {@value #MAX_GRAM} caracteres de un nombre indexado.
+     */
+    private static Set<String> grams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= MAX_GRAM; length++) {
+            for (int i = 0; i + length <= normalized.length(); i++) {
+                grams.add(normalized.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Subcadenas a buscar para una consulta: ella misma si tiene hasta
+     * {@value #MAX_GRAM} caracteres, o sus trigramas en otro caso.
+     */
+    private static Set<String> queryGrams(String needle) {
+        if (needle.length() <= MAX_GRAM) {
+            return Set.of(needle);
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + MAX_GRAM <= needle.length(); i++) {
+            grams.add(needle.substring(i, i + MAX_GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,148 @@
+package com.exp2.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Límite adaptativo de peticiones concurrentes, al estilo del algoritmo
+ * gradiente de Netflix concurrency-limits.
+ * Cada {@code laboratory.concurrency-limit.window-ms} se compara la latencia
+ * media de la ventana con una media de largo plazo: si la latencia sube, el
+ * límite baja en la misma proporción (como máximo a la mitad por ventana); si
+ * se mantiene, el límite crece en su raíz cuadrada. Mientras haya peticiones
+ * esperando una conexión del pool (o del semáforo de conexiones), la ventana
+ * se considera congestionada y el límite no crece.
+ * Las peticiones que superan el límite se rechazan de inmediato en lugar de
+ * esperar en cola. Admitir y liberar una petición no toma bloqueos; el
+ * recálculo lo hace el hilo que gana el CAS del fin de la ventana.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_WEIGHT = 0.05;
+    private static final double CONGESTED_GRADIENT = 0.9;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder rttCount = new LongAdder();
+    private final AtomicLong windowEnd;
+    private volatile double limit;
+    private volatile double longRtt;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+            @Value("${laboratory.concurrency-limit.enabled:false}") boolean enabled,
+            @Value("${laboratory.concurrency-limit.initial:40}") int initialLimit,
+            @Value("${laboratory.concurrency-limit.min:10}") int minLimit,
+            @Value("${laboratory.concurrency-limit.max:400}") int maxLimit,
+            @Value("${laboratory.concurrency-limit.window-ms:100}") long windowMillis) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.windowEnd = new AtomicLong(System.nanoTime() + windowNanos);
+        Gauge.builder("laboratory.concurrency.limit", this, limiter -> limiter.limit)
+                .description("Límite adaptativo de peticiones concurrentes")
+                .register(meterRegistry);
+        Gauge.builder("laboratory.concurrency.inflight", inflight, AtomicInteger::get)
+                .description("Peticiones en curso contadas por el límite adaptativo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indica si el límite adaptativo está habilitado.
+     *
+     * @return {@code true} si se aplica el límite.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Intenta admitir una petición.
+     *
+     * @return {@code true} si se admitió; en ese caso debe llamarse a
+     *         {@link #release(long)} al terminar.
+     */
+    public boolean tryAcquire() {
+        if (inflight.incrementAndGet() > (int) limit) {
+            inflight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Libera una petición admitida y registra su latencia.
+     *
+     * @param rttNanos Duración de la petición en nanosegundos.
+     */
+    public void release(long rttNanos) {
+        inflight.decrementAndGet();
+        rttSum.add(rttNanos);
+        rttCount.increment();
+        long end = windowEnd.get();
+        long now = System.nanoTime();
+        if (now - end >= 0 && windowEnd.compareAndSet(end, now + windowNanos)) {
+            updateLimit();
+        }
+    }
+
+    private void updateLimit() {
+        long count = rttCount.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        if (count == 0) {
+            return;
+        }
+        double shortRtt = (double) sum / count;
+        double previousLongRtt = longRtt;
+        double currentLongRtt = previousLongRtt == 0 ? shortRtt
+                : previousLongRtt * (1 - LONG_RTT_WEIGHT) + shortRtt * LONG_RTT_WEIGHT;
+        if (currentLongRtt / shortRtt > 2) {
+            // La latencia bajó mucho (por ejemplo, al terminar un pico): se
+            // acerca la media larga para no crecer sin control.
+            currentLongRtt *= 0.95;
+        }
+        longRtt = currentLongRtt;
+
+        double currentLimit = limit;
+        double gradient = Math.clamp(RTT_TOLERANCE * currentLongRtt / shortRtt, MIN_GRADIENT, 1.0);
+        boolean congested = pendingConnections() > 0;
+        if (congested) {
+            gradient = Math.min(gradient, CONGESTED_GRADIENT);
+        } else if (gradient == 1.0 && inflight.get() < currentLimit / 2) {
+            // Sin congestión y con el límite poco usado no hay evidencia para
+            // subirlo.
+            return;
+        }
+        double queueSize = congested ? 0 : Math.sqrt(currentLimit);
+        double target = currentLimit * gradient + queueSize;
+        limit = Math.clamp(currentLimit * (1 - SMOOTHING) + target * SMOOTHING, minLimit, maxLimit);
+    }
+
+    private double pendingConnections() {
+        double pending = 0;
+        for (var gauge : meterRegistry.find("hikaricp.connections.pending").gauges()) {
+            pending += gauge.value();
+        }
+        for (var gauge : meterRegistry.find("laboratory.db.gate.queued").gauges()) {
+            pending += gauge.value();
+        }
+        return pending;
+    }
+}
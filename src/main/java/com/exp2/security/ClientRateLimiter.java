@@ -0,0 +1,76 @@
+package com.exp2.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limitador de peticiones por cliente con cubetas de fichas.
+ * Cada cliente admite {@code laboratory.rate-limit.requests-per-second}
+ * peticiones por segundo con ráfagas de hasta {@code laboratory.rate-limit.burst}.
+ * La cubeta se representa con un único {@link AtomicLong}: el instante teórico
+ * en que quedaría vacía (algoritmo GCRA, equivalente a una cubeta de fichas).
+ * Admitir una petición es un CAS sobre ese valor, sin bloqueos ni hilos de
+ * recarga. Las cubetas se guardan en una caché Caffeine acotada, que reparte
+ * los clientes en segmentos independientes, y se descartan tras quedar
+ * inactivas el tiempo de recargarse por completo.
+ */
+@Component
+public class ClientRateLimiter {
+
+    private final boolean enabled;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    public ClientRateLimiter(@Value("${laboratory.rate-limit.enabled:false}") boolean enabled,
+            @Value("${laboratory.rate-limit.requests-per-second:50}") double requestsPerSecond,
+            @Value("${laboratory.rate-limit.burst:100}") int burst,
+            @Value("${laboratory.rate-limit.max-clients:100000}") long maxClients) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("La tasa y la ráfaga del límite de peticiones deben ser positivas");
+        }
+        this.enabled = enabled;
+        this.intervalNanos = (long) (1_000_000_000L / requestsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(Math.max(burstNanos, 1_000_000_000L)))
+                .build();
+    }
+
+    /**
+     * Indica si el límite por cliente está habilitado.
+     *
+     * @return {@code true} si se aplica el límite.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Intenta consumir una ficha de la cubeta del cliente.
+     *
+     * @param client Identificador del cliente.
+     * @return 0 si la petición se admite; si no, nanosegundos hasta que haya
+     *         una ficha disponible.
+     */
+    public long tryAcquire(String client) {
+        AtomicLong emptyAt = buckets.get(client, key -> new AtomicLong(System.nanoTime()));
+        while (true) {
+            long now = System.nanoTime();
+            long current = emptyAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (emptyAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
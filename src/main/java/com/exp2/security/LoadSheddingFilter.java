@@ -0,0 +1,181 @@
+package com.exp2.security;
+
+import com.exp2.exception.ApiErrors;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filtro que descarta carga antes de llegar a los controladores de la API.
+ * Primero aplica el límite por cliente ({@link ClientRateLimiter}), que
+ * responde 429, y luego el límite adaptativo de concurrencia
+ * ({@link AdaptiveConcurrencyLimiter}), que responde 503. Ambos rechazos son
+ * inmediatos e incluyen {@code Retry-After}, de modo que en un pico las
+ * peticiones excedentes fallan rápido en lugar de esperar una conexión hasta
+ * agotar el tiempo de espera del pool. Los rechazos usan el mismo cuerpo de
+ * error que el resto de la API y se cuentan en {@code laboratory.api.errors}
+ * con los tipos {@code rate_limited} y {@code overloaded} ({@link ApiErrors}).
+ * Las peticiones asíncronas liberan su lugar al completarse. Las conexiones de
+ * larga duración (canal de cambios y exportación) se excluyen del límite de
+ * concurrencia, ya que su duración no refleja la carga.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/";
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ObjectMapper objectMapper;
+    private final String clientHeader;
+    private final List<String> unlimitedPaths;
+    private final long overloadRetryAfterSeconds;
+    private final Counter rateLimited;
+    private final Counter overloaded;
+
+    /**
+     * Crea el filtro.
+     *
+     * @param rateLimiter               Límite por cliente.
+     * @param concurrencyLimiter        Límite adaptativo de concurrencia.
+     * @param objectMapper              Serializador del cuerpo de error.
+     * @param meterRegistry             Registro de métricas.
+     * @param clientHeader              Cabecera que identifica al cliente
+     *                                  (por ejemplo {@code X-Forwarded-For}),
+     *                                  o vacío para usar la dirección remota.
+     * @param unlimitedPaths            Rutas excluidas del límite de
+     *                                  concurrencia.
+     * @param overloadRetryAfterSeconds Valor de {@code Retry-After} de las
+     *                                  respuestas 503.
+     */
+    public LoadSheddingFilter(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry, String clientHeader,
+            List<String> unlimitedPaths, long overloadRetryAfterSeconds) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.objectMapper = objectMapper;
+        this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader;
+        this.unlimitedPaths = unlimitedPaths;
+        this.overloadRetryAfterSeconds = overloadRetryAfterSeconds;
+        this.rateLimited = ApiErrors.counter(meterRegistry, "rate_limited");
+        this.overloaded = ApiErrors.counter(meterRegistry, "overloaded");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (rateLimiter.isEnabled()) {
+            long waitNanos = rateLimiter.tryAcquire(clientKey(request));
+            if (waitNanos > 0) {
+                rateLimited.increment();
+                reject(request, response, HttpStatus.TOO_MANY_REQUESTS,
+                        Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)),
+                        "Se superó el límite de peticiones del cliente, intente nuevamente más tarde");
+                return;
+            }
+        }
+        if (!concurrencyLimiter.isEnabled() || isUnlimited(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            overloaded.increment();
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, overloadRetryAfterSeconds,
+                    "El servicio está sobrecargado, intente nuevamente en unos segundos");
+            return;
+        }
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(start, released));
+            } else {
+                release(start, released);
+            }
+        }
+    }
+
+    private void release(long start, AtomicBoolean released) {
+        if (released.compareAndSet(false, true)) {
+            concurrencyLimiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String value = request.getHeader(clientHeader);
+            if (value != null && !value.isBlank()) {
+                int comma = value.indexOf(',');
+                return (comma < 0 ? value : value.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private boolean isUnlimited(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return unlimitedPaths.contains(path);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+            long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiErrors.body(status, message, request.getRequestURI()));
+    }
+
+    /**
+     * Libera el lugar de una petición asíncrona cuando termina.
+     */
+    private final class ReleaseListener implements AsyncListener {
+
+        private final long start;
+        private final AtomicBoolean released;
+
+        private ReleaseListener(long start, AtomicBoolean released) {
+            this.start = start;
+            this.released = released;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(start, released);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(start, released);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(start, released);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
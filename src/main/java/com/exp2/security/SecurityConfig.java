@@ -1,15 +1,22 @@
 package com.exp2.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 
 /**
  * Clase de configuración de seguridad para la aplicación.
  * Define la cadena de filtros de seguridad de Spring Security.
  * Deshabilita CSRF y permite todas las solicitudes sin autenticación,
  * incluyendo el acceso libre a la documentación Swagger.
+ * Si el límite por cliente o el límite adaptativo de concurrencia están
+ * habilitados, agrega {@link LoadSheddingFilter} a la cadena.
  */
 @Configuration
 public class SecurityConfig {
@@ -19,12 +26,29 @@ public class SecurityConfig {
      * Deshabilita CSRF y permite todas las solicitudes, incluyendo las rutas de
      * Swagger UI.
      * 
-     * @param http Objeto HttpSecurity para configurar la seguridad HTTP.
+     * @param http               Objeto HttpSecurity para configurar la
+     *                           seguridad HTTP.
+     * @param rateLimiter        Límite de peticiones por cliente.
+     * @param concurrencyLimiter Límite adaptativo de concurrencia.
+     * @param objectMapper       Serializador de las respuestas de rechazo.
+     * @param meterRegistry      Registro de métricas.
+     * @param clientHeader       Cabecera que identifica al cliente, o vacío.
+     * @param unlimitedPaths     Rutas excluidas del límite de concurrencia.
+     * @param retryAfterSeconds  Retry-After de las respuestas 503.
      * @return SecurityFilterChain configurada.
      * @throws Exception Si ocurre un error en la configuración.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ClientRateLimiter rateLimiter,
+            AdaptiveConcurrencyLimiter concurrencyLimiter, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${laboratory.rate-limit.client-header:}") String clientHeader,
+            @Value("${laboratory.concurrency-limit.excluded-paths:}") List<String> unlimitedPaths,
+            @Value("${laboratory.concurrency-limit.retry-after-seconds:1}") long retryAfterSeconds)
+            throws Exception {
+        if (rateLimiter.isEnabled() || concurrencyLimiter.isEnabled()) {
+            http.addFilterBefore(new LoadSheddingFilter(rateLimiter, concurrencyLimiter, objectMapper,
+                    meterRegistry, clientHeader, unlimitedPaths, retryAfterSeconds), AuthorizationFilter.class);
+        }
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
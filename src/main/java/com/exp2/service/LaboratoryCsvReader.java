@@ -0,0 +1,138 @@
+package com.exp2.service;
+
+import com.exp2.model.Laboratory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Lector incremental de laboratorios en formato CSV.
+ * La primera línea debe ser una cabecera con los nombres de las columnas
+ * ({@code name, address, phone, email, website, specialty}) en cualquier
+ * orden. Los valores pueden ir entre comillas dobles para incluir comas;
+ * las comillas dobles se escapan duplicándolas. No se admiten saltos de línea
+ * dentro de un valor.
+ * Las filas se leen de a una, por lo que el tamaño del archivo no afecta el
+ * uso de memoria.
+ */
+public class LaboratoryCsvReader implements Iterator<Laboratory> {
+
+    private static final List<String> COLUMNS = List.of("name", "address", "phone", "email", "website", "specialty");
+
+    private final BufferedReader reader;
+    private final int[] columnIndexes;
+    private String nextLine;
+
+    /**
+     * Crea un lector y procesa la cabecera del CSV.
+     *
+     * @param source Fuente de caracteres del CSV.
+     * @throws IllegalArgumentException si la cabecera está vacía o contiene
+     *                                  columnas desconocidas.
+     */
+    public LaboratoryCsvReader(Reader source) {
+        this.reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source);
+        String header = readLine();
+        if (header == null || header.isBlank()) {
+            throw new IllegalArgumentException("El CSV debe incluir una cabecera con los nombres de las columnas");
+        }
+        List<String> headerColumns = parseLine(stripBom(header));
+        this.columnIndexes = new int[COLUMNS.size()];
+        Arrays.fill(columnIndexes, -1);
+        for (int i = 0; i < headerColumns.size(); i++) {
+            String column = headerColumns.get(i).trim().toLowerCase(Locale.ROOT);
+            int field = COLUMNS.indexOf(column);
+            if (field < 0) {
+                throw new IllegalArgumentException("Columna CSV desconocida: " + headerColumns.get(i));
+            }
+            columnIndexes[field] = i;
+        }
+        this.nextLine = readNonBlankLine();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextLine != null;
+    }
+
+    @Override
+    public Laboratory next() {
+        if (nextLine == null) {
+            throw new NoSuchElementException();
+        }
+        List<String> values = parseLine(nextLine);
+        nextLine = readNonBlankLine();
+        Laboratory laboratory = new Laboratory();
+        laboratory.setName(value(values, 0));
+        laboratory.setAddress(value(values, 1));
+        laboratory.setPhone(value(values, 2));
+        laboratory.setEmail(value(values, 3));
+        laboratory.setWebsite(value(values, 4));
+        laboratory.setSpecialty(value(values, 5));
+        return laboratory;
+    }
+
+    private String value(List<String> values, int field) {
+        int index = columnIndexes[field];
+        if (index < 0 || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private String readNonBlankLine() {
+        String line;
+        do {
+            line = readLine();
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    private String readLine() {
+        try {
+            return reader.readLine();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    private static List<String> parseLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
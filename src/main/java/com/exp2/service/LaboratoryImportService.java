@@ -0,0 +1,25 @@
+package com.exp2.service;
+
+import com.exp2.dto.BulkImportReport;
+import com.exp2.model.Laboratory;
+import java.util.Iterator;
+
+/**
+ * Interfaz que define la carga masiva de laboratorios.
+ * Permite insertar (o actualizar por nombre) grandes volúmenes de
+ * laboratorios en lotes JDBC, informando el resultado de cada fila.
+ */
+public interface LaboratoryImportService {
+
+    /**
+     * Importa los laboratorios entregados por el iterador.
+     * Las filas inválidas o con nombre duplicado se informan en el reporte sin
+     * interrumpir la carga.
+     *
+     * @param rows   Laboratorios a importar, leídos de forma incremental.
+     * @param upsert Si es {@code true}, los laboratorios cuyo nombre ya existe
+     *               se actualizan en lugar de marcarse como duplicados.
+     * @return Reporte con el resultado de cada fila.
+     */
+    BulkImportReport importLaboratories(Iterator<Laboratory> rows, boolean upsert);
+}
@@ -0,0 +1,203 @@
+package com.exp2.service;
+
+import com.exp2.cache.LaboratoryNameIndex;
+import com.exp2.dto.BulkImportReport;
+import com.exp2.dto.BulkImportRowResult;
+import com.exp2.dto.BulkImportStatus;
+import com.exp2.event.LaboratoryChangedEvent;
+import com.exp2.model.Laboratory;
+import com.exp2.repository.LaboratoryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementación de la interfaz {@link LaboratoryImportService}.
+ * Valida cada fila contra las restricciones de {@link Laboratory}, detecta
+ * nombres repetidos dentro de la carga y contra los existentes, y escribe
+ * los laboratorios en lotes del tamaño configurado, cada uno en su propia
+ * transacción. Si un lote falla por una violación de unicidad concurrente, se
+ * reintenta fila a fila para aislar los duplicados sin abortar la carga.
+ * Sin upsert, los nombres que {@link LaboratoryNameIndex} ya conoce se marcan
+ * como duplicados sin llegar a la base de datos.
+ * Cada fila escrita publica un {@link LaboratoryChangedEvent}, que se entrega
+ * a los oyentes solo si el lote se confirma.
+ */
+@Slf4j
+@Service
+public class LaboratoryImportServiceImpl implements LaboratoryImportService {
+
+    private final LaboratoryRepository laboratoryRepository;
+    private final LaboratoryNameIndex laboratoryNameIndex;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public LaboratoryImportServiceImpl(LaboratoryRepository laboratoryRepository,
+            LaboratoryNameIndex laboratoryNameIndex, EntityManager entityManager,
+            Validator validator, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${laboratory.import.batch-size:500}") int batchSize) {
+        this.laboratoryRepository = laboratoryRepository;
+        this.laboratoryNameIndex = laboratoryNameIndex;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, Math.min(batchSize, LaboratoryRepository.MAX_IN_LIST_SIZE));
+    }
+
+    /**
+     * Importa los laboratorios entregados por el iterador en lotes JDBC.
+     *
+     * @param rows   Laboratorios a importar, leídos de forma incremental.
+     * @param upsert Si es {@code true}, actualiza los laboratorios existentes
+     *               con el mismo nombre.
+     * @return Reporte con el resultado de cada fila.
+     */
+    @Override
+    public BulkImportReport importLaboratories(Iterator<Laboratory> rows, boolean upsert) {
+        List<BulkImportRowResult> results = new ArrayList<>();
+        Set<String> namesInImport = new HashSet<>();
+        List<PendingRow> chunk = new ArrayList<>(batchSize);
+        int rowNumber = 0;
+        while (rows.hasNext()) {
+            Laboratory laboratory = rows.next();
+            rowNumber++;
+            List<String> errors = validate(laboratory);
+            if (!errors.isEmpty()) {
+                results.add(new BulkImportRowResult(rowNumber, BulkImportStatus.INVALID, null,
+                        laboratory.getName(), errors));
+            } else if (!namesInImport.add(laboratory.getName())) {
+                results.add(duplicate(rowNumber, laboratory, "El nombre aparece repetido en la carga"));
+            } else if (!upsert && laboratoryNameIndex.isTaken(laboratory.getName(), 0L)) {
+                results.add(duplicate(rowNumber, laboratory, duplicateMessage(laboratory)));
+            } else {
+                chunk.add(new PendingRow(rowNumber, laboratory));
+                if (chunk.size() == batchSize) {
+                    results.addAll(writeChunk(chunk, upsert));
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(writeChunk(chunk, upsert));
+        }
+        results.sort(Comparator.comparingInt(BulkImportRowResult::row));
+        return BulkImportReport.of(results);
+    }
+
+    private List<String> validate(Laboratory laboratory) {
+        Set<ConstraintViolation<Laboratory>> violations = validator.validate(laboratory);
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Escribe un lote en una transacción. Si otro proceso insertó uno de los
+     * nombres entre la verificación y el INSERT, el lote se reintenta fila a
+     * fila y solo las filas en conflicto se marcan como duplicadas.
+     */
+    private List<BulkImportRowResult> writeChunk(List<PendingRow> chunk, boolean upsert) {
+        try {
+            return transactionTemplate.execute(status -> writeInTransaction(chunk, upsert));
+        } catch (DataIntegrityViolationException ex) {
+            log.warn("Conflicto de unicidad en un lote de {} filas, reintentando fila a fila", chunk.size());
+            List<BulkImportRowResult> results = new ArrayList<>(chunk.size());
+            for (PendingRow row : chunk) {
+                try {
+                    results.addAll(transactionTemplate.execute(status -> writeInTransaction(List.of(row), upsert)));
+                } catch (DataIntegrityViolationException rowEx) {
+                    results.add(duplicate(row.number(), row.laboratory(), duplicateMessage(row.laboratory())));
+                }
+            }
+            return results;
+        }
+    }
+
+    private List<BulkImportRowResult> writeInTransaction(List<PendingRow> chunk, boolean upsert) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        List<String> names = chunk.stream().map(row -> row.laboratory().getName()).toList();
+        Map<String, Laboratory> existing = laboratoryRepository.findByNameIn(names).stream()
+                .collect(Collectors.toMap(Laboratory::getName, Function.identity()));
+
+        List<BulkImportRowResult> results = new ArrayList<>(chunk.size());
+        List<PendingRow> inserts = new ArrayList<>(chunk.size());
+        List<PendingRow> updates = new ArrayList<>();
+        List<Laboratory> previousStates = new ArrayList<>();
+        for (PendingRow row : chunk) {
+            Laboratory incoming = row.laboratory();
+            Laboratory current = existing.get(incoming.getName());
+            if (current == null) {
+                incoming.setId(0L);
+                incoming.setVersion(null);
+                inserts.add(row);
+            } else if (upsert) {
+                previousStates.add(current.copy());
+                current.setAddress(incoming.getAddress());
+                current.setPhone(incoming.getPhone());
+                current.setEmail(incoming.getEmail());
+                current.setWebsite(incoming.getWebsite());
+                current.setSpecialty(incoming.getSpecialty());
+                updates.add(new PendingRow(row.number(), current));
+            } else {
+                results.add(duplicate(row.number(), incoming, duplicateMessage(incoming)));
+            }
+        }
+
+        laboratoryRepository.saveAll(inserts.stream().map(PendingRow::laboratory).toList());
+        laboratoryRepository.flush();
+        for (PendingRow row : inserts) {
+            results.add(success(row, BulkImportStatus.CREATED));
+            eventPublisher.publishEvent(LaboratoryChangedEvent.created(row.laboratory()));
+        }
+        for (int i = 0; i < updates.size(); i++) {
+            PendingRow row = updates.get(i);
+            results.add(success(row, BulkImportStatus.UPDATED));
+            eventPublisher.publishEvent(LaboratoryChangedEvent.updated(previousStates.get(i), row.laboratory()));
+        }
+        entityManager.clear();
+        return results;
+    }
+
+    private static BulkImportRowResult success(PendingRow row, BulkImportStatus status) {
+        Laboratory laboratory = row.laboratory();
+        return new BulkImportRowResult(row.number(), status, laboratory.getId(), laboratory.getName(), List.of());
+    }
+
+    private static BulkImportRowResult duplicate(int rowNumber, Laboratory laboratory, String message) {
+        return new BulkImportRowResult(rowNumber, BulkImportStatus.DUPLICATE, null, laboratory.getName(),
+                List.of(message));
+    }
+
+    private static String duplicateMessage(Laboratory laboratory) {
+        return "Ya existe un laboratorio con el nombre: " + laboratory.getName();
+    }
+
+    /**
+     * Fila pendiente de escritura junto a su número dentro de la carga.
+     */
+    private record PendingRow(int number, Laboratory laboratory) {
+    }
+}
@@ -1,8 +1,19 @@
 package com.exp2.service;
 
+import com.exp2.dto.LaboratoryNameView;
+import com.exp2.dto.LaboratoryBatchResult;
+import com.exp2.dto.LaboratoryField;
+import com.exp2.dto.LaboratoryPage;
+import com.exp2.dto.LaboratoryPatch;
+import com.exp2.dto.LaboratorySyncPage;
+import com.exp2.dto.SearchResultPage;
+import com.exp2.exception.SyncTokenExpiredException;
 import com.exp2.model.Laboratory;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 
 /**
@@ -27,6 +38,47 @@ public interface LaboratoryService {
      */
     List<Laboratory> getAllLaboratories();
 
+    /**
+     * Obtiene una página de laboratorios usando paginación por cursor sobre el
+     * ID, con filtros opcionales por especialidad y nombre.
+     *
+     * @param cursor    Cursor devuelto por la página anterior, o {@code null}
+     *                  para la primera página.
+     * @param size      Tamaño de página solicitado, o {@code null} para usar el
+     *                  valor por defecto. Se limita al máximo configurado.
+     * @param specialty Especialidad exacta a filtrar (opcional).
+     * @param name      Nombre o parte del nombre a filtrar (opcional).
+     * @return Página de laboratorios con el cursor de la página siguiente.
+     * @throws IllegalArgumentException si el cursor o el tamaño no son válidos.
+     */
+    LaboratoryPage<Laboratory> getLaboratoriesPage(String cursor, Integer size, String specialty, String name);
+
+    /**
+     * Igual que {@link #getLaboratoriesPage(String, Integer, String, String)},
+     * pero la consulta selecciona y devuelve solo los campos indicados.
+     *
+     * @param cursor    Cursor devuelto por la página anterior, o {@code null}
+     *                  para la primera página.
+     * @param size      Tamaño de página solicitado, o {@code null} para usar el
+     *                  valor por defecto. Se limita al máximo configurado.
+     * @param specialty Especialidad exacta a filtrar (opcional).
+     * @param name      Nombre o parte del nombre a filtrar (opcional).
+     * @param fields    Campos a devolver; el ID se incluye siempre.
+     * @return Página con los campos solicitados de cada laboratorio.
+     * @throws IllegalArgumentException si el cursor o el tamaño no son válidos.
+     */
+    LaboratoryPage<Map<String, Object>> getLaboratoriesPage(String cursor, Integer size, String specialty,
+            String name, Set<LaboratoryField> fields);
+
+    /**
+     * Recorre todos los laboratorios en orden de ID entregándolos uno a uno al
+     * consumidor, sin mantener la lista completa en memoria.
+     *
+     * @param consumer Función que recibe cada laboratorio leído.
+     * @return Cantidad de laboratorios entregados.
+     */
+    long exportLaboratories(Consumer<Laboratory> consumer);
+
     /**
      * Busca un laboratorio por su ID.
      *
@@ -35,6 +87,17 @@ public interface LaboratoryService {
      */
     Optional<Laboratory> getLaboratoryById(Long id);
 
+    /**
+     * Obtiene varios laboratorios por ID en una sola operación.
+     *
+     * @param ids IDs de los laboratorios; los repetidos se consideran una vez.
+     * @return Laboratorios encontrados indexados por ID y los IDs inexistentes.
+     * @throws IllegalArgumentException si la lista está vacía, contiene
+     *                                  valores nulos o supera el máximo
+     *                                  configurado.
+     */
+    LaboratoryBatchResult getLaboratoriesByIds(List<Long> ids);
+
     /**
      * Actualiza los datos de un laboratorio existente.
      *
@@ -44,6 +107,17 @@ public interface LaboratoryService {
      */
     Laboratory updateLaboratory(Long id, Laboratory laboratory);
 
+    /**
+     * Modifica solo los campos presentes en el cambio, siempre que el
+     * laboratorio siga en la versión indicada.
+     *
+     * @param id      ID del laboratorio a modificar.
+     * @param version Versión que el cliente leyó por última vez.
+     * @param patch   Campos a modificar.
+     * @return Laboratorio con los cambios aplicados y su nueva versión.
+     */
+    Laboratory patchLaboratory(Long id, long version, LaboratoryPatch patch);
+
     /**
      * Elimina un laboratorio por su ID.
      *
@@ -51,6 +125,23 @@ public interface LaboratoryService {
      */
     void deleteLaboratory(Long id);
 
+    /**
+     * Obtiene los laboratorios creados, modificados y eliminados desde el
+     * token de una sincronización anterior.
+     *
+     * @param token Token devuelto por la sincronización anterior, o
+     *              {@code null} para obtener el registro completo.
+     * @param size  Cantidad máxima de cambios de cada tipo, o {@code null}
+     *              para usar el valor por defecto.
+     * @return Cambios desde el token y el token para la próxima
+     *         sincronización.
+     * @throws IllegalArgumentException  si el token o el tamaño no son
+     *                                   válidos.
+     * @throws SyncTokenExpiredException si el token es anterior a la
+     *                                   retención de las eliminaciones.
+     */
+    LaboratorySyncPage sync(String token, Integer size);
+
     /**
      * Busca laboratorios por especialidad.
      *
@@ -63,8 +154,37 @@ public interface LaboratoryService {
      * Busca laboratorios por nombre (búsqueda parcial, sin distinguir
      * mayúsculas/minúsculas).
      *
-     * @param name Nombre o parte del nombre a buscar.
+     * @param name  Nombre o parte del nombre a buscar.
+     * @param limit Cantidad máxima de resultados, o {@code null} para no
+     *              limitar.
      * @return Lista de laboratorios que coinciden con el nombre.
      */
-    List<Laboratory> findByName(String name);
-}
\ No newline at end of file
+    List<Laboratory> findByName(String name, Integer limit);
+
+    /**
+     * Obtiene los primeros laboratorios, en orden alfabético, cuyo nombre
+     * comienza con el prefijo indicado (sin distinguir mayúsculas/minúsculas).
+     *
+     * @param prefix Prefijo del nombre.
+     * @param limit  Cantidad máxima de resultados, o {@code null} para usar el
+     *               valor por defecto. Se limita al máximo configurado.
+     * @return Pares ID/nombre de los laboratorios encontrados.
+     * @throws IllegalArgumentException si el límite no es positivo.
+     */
+    List<LaboratoryNameView> autocomplete(String prefix, Integer limit);
+
+    /**
+     * Búsqueda de texto completo sobre nombre, dirección y especialidad, sin
+     * distinguir mayúsculas/minúsculas ni tildes, con resultados ordenados por
+     * relevancia.
+     *
+     * @param query Texto de la consulta.
+     * @param page  Número de página (comenzando en 0), o {@code null}.
+     * @param size  Tamaño de página, o {@code null} para usar el valor por
+     *              defecto.
+     * @return Página de resultados ordenados por relevancia.
+     * @throws IllegalArgumentException si la consulta está vacía o la
+     *                                  paginación no es válida.
+     */
+    SearchResultPage<Laboratory> search(String query, Integer page, Integer size);
+}
@@ -1,12 +1,57 @@
 package com.exp2.service;
 
+import com.exp2.cache.LaboratoryCache;
+import com.exp2.cache.LaboratoryNameIndex;
+import com.exp2.dto.LaboratoryNameView;
+import com.exp2.dto.LaboratoryBatchResult;
+import com.exp2.dto.LaboratoryField;
+import com.exp2.dto.LaboratoryPage;
+import com.exp2.dto.LaboratoryPatch;
+import com.exp2.dto.LaboratorySyncPage;
+import com.exp2.dto.SearchHit;
+import com.exp2.dto.SearchResultPage;
+import com.exp2.event.LaboratoryChangedEvent;
 import com.exp2.exception.DuplicateResourceException;
+import com.exp2.exception.ResourceNotFoundException;
+import com.exp2.exception.ServiceUnavailableException;
+import com.exp2.exception.SyncTokenExpiredException;
+import com.exp2.exception.VersionConflictException;
 import com.exp2.model.Laboratory;
+import com.exp2.model.LaboratoryTombstone;
 import com.exp2.repository.LaboratoryRepository;
+import com.exp2.repository.LaboratoryTombstoneRepository;
+import com.exp2.search.LaboratoryTextIndex;
+import com.exp2.search.NamePrefixIndex;
+import com.exp2.search.TrigramNameIndex;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 /**
  * Implementación de la interfaz {@link LaboratoryService} para la gestión de
@@ -14,20 +59,95 @@ import java.util.Optional;
  * Proporciona operaciones CRUD y búsquedas personalizadas sobre la entidad
  * Laboratory.
  * Maneja la excepción de recurso duplicado al intentar guardar laboratorios con
- * nombre repetido.
+ * nombre repetido: los nombres conocidos se rechazan con
+ * {@link LaboratoryNameIndex} antes de acceder a la base de datos, y la
+ * restricción de unicidad resuelve las carreras entre escrituras.
+ * Las lecturas por ID, especialidad y nombre pasan por {@link LaboratoryCache};
+ * las escrituras publican un {@link LaboratoryChangedEvent} para invalidarla.
+ * Las búsquedas parciales por nombre se resuelven con
+ * {@link TrigramNameIndex} y el autocompletado con {@link NamePrefixIndex}
+ * cuando los índices están disponibles. La búsqueda de texto completo se
+ * resuelve siempre con {@link LaboratoryTextIndex}.
+ * Las eliminaciones dejan una marca en {@link LaboratoryTombstoneRepository}
+ * para que la sincronización incremental pueda informarlas.
+ * Las consultas se ejecutan en transacciones de solo lectura, que se envían a
+ * la réplica cuando está habilitada ({@code laboratory.datasource.replica}).
+ * Las lecturas que se responden desde la caché o los índices en memoria no
+ * abren una transacción: solo sus cargas desde la base de datos lo hacen, de
+ * modo que un acierto no ocupa una conexión del pool.
  */
 @Service
 public class LaboratoryServiceImpl implements LaboratoryService {
 
     private final LaboratoryRepository laboratoryRepository;
+    private final LaboratoryTombstoneRepository tombstoneRepository;
+    private final EntityManager entityManager;
+    private final LaboratoryCache laboratoryCache;
+    private final LaboratoryNameIndex laboratoryNameIndex;
+    private final TrigramNameIndex trigramNameIndex;
+    private final NamePrefixIndex namePrefixIndex;
+    private final LaboratoryTextIndex laboratoryTextIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int defaultAutocompleteLimit;
+    private final int maxAutocompleteLimit;
+    private final int maxSearchResults;
+    private final int idChunkSize;
+    private final int maxBatchIds;
+    private final int defaultSyncSize;
+    private final int maxSyncSize;
+    private final Duration syncCommitLag;
+    private final Duration tombstoneRetention;
 
-    public LaboratoryServiceImpl(LaboratoryRepository laboratoryRepository) {
+    public LaboratoryServiceImpl(LaboratoryRepository laboratoryRepository,
+            LaboratoryTombstoneRepository tombstoneRepository, EntityManager entityManager,
+            LaboratoryCache laboratoryCache, LaboratoryNameIndex laboratoryNameIndex,
+            TrigramNameIndex trigramNameIndex, NamePrefixIndex namePrefixIndex,
+            LaboratoryTextIndex laboratoryTextIndex, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${laboratory.pagination.default-size:20}") int defaultPageSize,
+            @Value("${laboratory.pagination.max-size:100}") int maxPageSize,
+            @Value("${laboratory.autocomplete.default-limit:10}") int defaultAutocompleteLimit,
+            @Value("${laboratory.autocomplete.max-limit:50}") int maxAutocompleteLimit,
+            @Value("${laboratory.search.max-results:1000}") int maxSearchResults,
+            @Value("${laboratory.batch.chunk-size:500}") int idChunkSize,
+            @Value("${laboratory.batch.max-ids:500}") int maxBatchIds,
+            @Value("${laboratory.sync.default-size:500}") int defaultSyncSize,
+            @Value("${laboratory.sync.max-size:1000}") int maxSyncSize,
+            @Value("${laboratory.sync.commit-lag-ms:5000}") long syncCommitLagMillis,
+            @Value("${laboratory.sync.tombstone-retention-days:30}") long tombstoneRetentionDays) {
         this.laboratoryRepository = laboratoryRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.entityManager = entityManager;
+        this.laboratoryCache = laboratoryCache;
+        this.laboratoryNameIndex = laboratoryNameIndex;
+        this.trigramNameIndex = trigramNameIndex;
+        this.namePrefixIndex = namePrefixIndex;
+        this.laboratoryTextIndex = laboratoryTextIndex;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.defaultAutocompleteLimit = defaultAutocompleteLimit;
+        this.maxAutocompleteLimit = maxAutocompleteLimit;
+        this.maxSearchResults = maxSearchResults;
+        this.idChunkSize = Math.max(1, Math.min(idChunkSize, LaboratoryRepository.MAX_IN_LIST_SIZE));
+        this.maxBatchIds = maxBatchIds;
+        this.defaultSyncSize = defaultSyncSize;
+        this.maxSyncSize = maxSyncSize;
+        this.syncCommitLag = Duration.ofMillis(syncCommitLagMillis);
+        this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
     }
 
     /**
      * Guarda un nuevo laboratorio en la base de datos.
-     * Lanza una excepción si el laboratorio ya existe.
+     * Lanza una excepción si el laboratorio ya existe. La comprobación del
+     * nombre y el INSERT se ejecutan en una transacción de escritura, por lo
+     * que ambos van al primario; el INSERT se envía antes de salir del método
+     * para convertir la violación de unicidad en 409.
      * 
      * @param laboratory Laboratorio a guardar.
      * @return Laboratorio guardado.
@@ -35,88 +155,564 @@ public class LaboratoryServiceImpl implements LaboratoryService {
      *                                    nombre.
      */
     @Override
+    @Transactional
     public Laboratory saveLaboratory(Laboratory laboratory) {
+        if (laboratoryNameIndex.isTaken(laboratory.getName(), laboratory.getId())) {
+            throw duplicateName(laboratory.getName());
+        }
         try {
-            return laboratoryRepository.save(laboratory);
+            Laboratory saved = laboratoryRepository.saveAndFlush(laboratory);
+            eventPublisher.publishEvent(LaboratoryChangedEvent.created(saved));
+            return saved;
         } catch (DataIntegrityViolationException ex) {
-            throw new DuplicateResourceException("Ya existe un laboratorio con el nombre: " + laboratory.getName());
+            throw duplicateName(laboratory.getName());
         }
     }
 
+    private static DuplicateResourceException duplicateName(String name) {
+        return new DuplicateResourceException("Ya existe un laboratorio con el nombre: " + name);
+    }
+
     /**
      * Obtiene la lista de todos los laboratorios.
      * 
      * @return Lista de laboratorios.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Laboratory> getAllLaboratories() {
         return laboratoryRepository.findAll();
     }
 
     /**
-     * Busca un laboratorio por su ID.
+     * Obtiene una página de laboratorios usando paginación por cursor sobre el
+     * ID. Se solicita una fila adicional para saber si existe una página
+     * siguiente sin ejecutar un COUNT.
+     *
+     * @param cursor    Cursor devuelto por la página anterior, o {@code null}.
+     * @param size      Tamaño de página solicitado, o {@code null}.
+     * @param specialty Especialidad exacta a filtrar (opcional).
+     * @param name      Nombre o parte del nombre a filtrar (opcional).
+     * @return Página de laboratorios con el cursor de la página siguiente.
+     * @throws IllegalArgumentException si el cursor o el tamaño no son válidos.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public LaboratoryPage<Laboratory> getLaboratoriesPage(String cursor, Integer size, String specialty,
+            String name) {
+        int pageSize = resolvePageSize(size);
+        long afterId = decodeCursor(cursor);
+        List<Laboratory> rows = laboratoryRepository.findPageAfter(afterId,
+                emptyToNull(specialty), toLikePattern(name), Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, Laboratory::getId);
+    }
+
+    /**
+     * Obtiene una página de laboratorios con paginación por cursor, leyendo
+     * de la base de datos solo las columnas de los campos solicitados.
+     *
+     * @param cursor    Cursor devuelto por la página anterior, o {@code null}.
+     * @param size      Tamaño de página solicitado, o {@code null}.
+     * @param specialty Especialidad exacta a filtrar (opcional).
+     * @param name      Nombre o parte del nombre a filtrar (opcional).
+     * @param fields    Campos a devolver; el ID se incluye siempre.
+     * @return Página con los campos solicitados de cada laboratorio.
+     * @throws IllegalArgumentException si el cursor o el tamaño no son válidos.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public LaboratoryPage<Map<String, Object>> getLaboratoriesPage(String cursor, Integer size, String specialty,
+            String name, Set<LaboratoryField> fields) {
+        int pageSize = resolvePageSize(size);
+        long afterId = decodeCursor(cursor);
+        Set<LaboratoryField> selected = EnumSet.copyOf(fields);
+        selected.add(LaboratoryField.ID);
+        List<Map<String, Object>> rows = laboratoryRepository.findPageAfter(afterId,
+                emptyToNull(specialty), toLikePattern(name), pageSize + 1, selected);
+        return toPage(rows, pageSize, row -> (Long) row.get(LaboratoryField.ID.attribute()));
+    }
+
+    private static <T> LaboratoryPage<T> toPage(List<T> rows, int pageSize, ToLongFunction<T> id) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(id.applyAsLong(items.get(items.size() - 1))) : null;
+        return new LaboratoryPage<>(items, pageSize, hasMore, nextCursor);
+    }
+
+    /**
+     * Recorre todos los laboratorios con un cursor JDBC dentro de una
+     * transacción de solo lectura. Cada entidad se desacopla del contexto de
+     * persistencia después de entregarla, para que la memoria utilizada no
+     * crezca con el tamaño de la tabla.
+     *
+     * @param consumer Función que recibe cada laboratorio leído.
+     * @return Cantidad de laboratorios entregados.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportLaboratories(Consumer<Laboratory> consumer) {
+        long count = 0;
+        try (Stream<Laboratory> laboratories = laboratoryRepository.streamAllOrderedById()) {
+            var iterator = laboratories.iterator();
+            while (iterator.hasNext()) {
+                Laboratory laboratory = iterator.next();
+                consumer.accept(laboratory);
+                entityManager.detach(laboratory);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Busca un laboratorio por su ID, consultando primero la caché. Solo la
+     * carga desde la base de datos abre una transacción de solo lectura.
      * 
      * @param id ID del laboratorio.
      * @return Un Optional con el laboratorio encontrado o vacío si no existe.
      */
     @Override
     public Optional<Laboratory> getLaboratoryById(Long id) {
-        return laboratoryRepository.findById(id);
+        return laboratoryCache.getById(id, key -> readOnly(() -> laboratoryRepository.findById(key)));
+    }
+
+    /**
+     * Obtiene varios laboratorios por ID. Los que están en la caché no se
+     * consultan; el resto se carga con consultas {@code IN} por bloques, en
+     * una transacción de solo lectura.
+     *
+     * @param ids IDs de los laboratorios; los repetidos se consideran una vez.
+     * @return Laboratorios encontrados indexados por ID y los IDs inexistentes.
+     * @throws IllegalArgumentException si la lista está vacía, contiene
+     *                                  valores nulos o supera el máximo
+     *                                  configurado.
+     */
+    @Override
+    public LaboratoryBatchResult getLaboratoriesByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un ID");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("La lista de IDs no puede contener valores nulos");
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > maxBatchIds) {
+            throw new IllegalArgumentException("Se pueden consultar como máximo " + maxBatchIds + " IDs por petición");
+        }
+        Map<Long, Laboratory> loaded = laboratoryCache.getAllById(requested, this::loadByIds);
+        Map<Long, Laboratory> found = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            Laboratory laboratory = loaded.get(id);
+            if (laboratory != null) {
+                found.put(id, laboratory);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new LaboratoryBatchResult(found, missing);
     }
 
     /**
      * Actualiza los datos de un laboratorio existente.
+     * La lectura y la escritura se hacen en la misma transacción de escritura,
+     * de modo que el laboratorio se lee del primario y no de una réplica
+     * atrasada, que podría no tenerlo todavía o tenerlo en una versión
+     * anterior.
      * 
      * @param id         ID del laboratorio a actualizar.
      * @param laboratory Datos nuevos del laboratorio.
      * @return Laboratorio actualizado.
-     * @throws RuntimeException si no se encuentra el laboratorio.
+     * @throws ResourceNotFoundException  si no se encuentra el laboratorio.
+     * @throws DuplicateResourceException si el nuevo nombre ya pertenece a
+     *                                    otro laboratorio.
      */
     @Override
+    @Transactional
     public Laboratory updateLaboratory(Long id, Laboratory laboratory) {
+        if (laboratoryNameIndex.isTaken(laboratory.getName(), id)) {
+            throw duplicateName(laboratory.getName());
+        }
         return laboratoryRepository.findById(id)
                 .map(existingLab -> {
+                    Laboratory previous = existingLab.copy();
                     existingLab.setName(laboratory.getName());
                     existingLab.setAddress(laboratory.getAddress());
                     existingLab.setPhone(laboratory.getPhone());
                     existingLab.setEmail(laboratory.getEmail());
                     existingLab.setWebsite(laboratory.getWebsite());
                     existingLab.setSpecialty(laboratory.getSpecialty());
-                    return laboratoryRepository.save(existingLab);
+                    Laboratory saved;
+                    try {
+                        saved = laboratoryRepository.saveAndFlush(existingLab);
+                    } catch (DataIntegrityViolationException ex) {
+                        throw duplicateName(laboratory.getName());
+                    }
+                    eventPublisher.publishEvent(LaboratoryChangedEvent.updated(previous, saved));
+                    return saved;
                 })
-                .orElseThrow(() -> new RuntimeException("Laboratorio no encontrado con ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Laboratorio no encontrado con ID: " + id));
+    }
+
+    /**
+     * Modifica los campos presentes en el cambio con una única sentencia
+     * {@code UPDATE ... WHERE id = ? AND version = ?}, sin leer antes el
+     * laboratorio. Si la caché contiene el laboratorio en la versión
+     * esperada, el resultado se arma en memoria; en caso contrario se lee por
+     * clave primaria dentro de la misma transacción. Solo cuando no se
+     * actualiza ninguna fila se consulta si el laboratorio existe, para
+     * distinguir entre 404 y conflicto de versión.
+     *
+     * @param id      ID del laboratorio a modificar.
+     * @param version Versión que el cliente leyó por última vez.
+     * @param patch   Campos a modificar.
+     * @return Laboratorio con los cambios aplicados y su nueva versión.
+     * @throws IllegalArgumentException   si el cambio no incluye ningún campo.
+     * @throws ResourceNotFoundException  si no se encuentra el laboratorio.
+     * @throws VersionConflictException   si el laboratorio cambió de versión.
+     * @throws DuplicateResourceException si el nuevo nombre ya pertenece a
+     *                                    otro laboratorio.
+     */
+    @Override
+    @Transactional
+    public Laboratory patchLaboratory(Long id, long version, LaboratoryPatch patch) {
+        if (patch.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un campo a modificar");
+        }
+        if (laboratoryNameIndex.isTaken(patch.name(), id)) {
+            throw duplicateName(patch.name());
+        }
+        Laboratory previous = laboratoryCache.peekById(id)
+                .filter(cached -> Objects.equals(cached.getVersion(), version))
+                .orElse(null);
+        Instant updatedAt = Instant.now();
+        int updated;
+        try {
+            updated = laboratoryRepository.patch(id, version, patch, updatedAt);
+        } catch (DataIntegrityViolationException ex) {
+            throw duplicateName(patch.name());
+        }
+        if (updated == 0) {
+            if (!laboratoryRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Laboratorio no encontrado con ID: " + id);
+            }
+            throw new VersionConflictException("El laboratorio con ID " + id
+                    + " fue modificado por otra petición; vuelva a leerlo e intente nuevamente");
+        }
+        Laboratory current = previous != null ? applyPatch(previous.copy(), patch, updatedAt)
+                : laboratoryRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Laboratorio no encontrado con ID: " + id));
+        eventPublisher.publishEvent(LaboratoryChangedEvent.updated(previous, current));
+        return current;
+    }
+
+    private static Laboratory applyPatch(Laboratory laboratory, LaboratoryPatch patch, Instant updatedAt) {
+        Optional.ofNullable(patch.name()).ifPresent(laboratory::setName);
+        Optional.ofNullable(patch.address()).ifPresent(laboratory::setAddress);
+        Optional.ofNullable(patch.phone()).ifPresent(laboratory::setPhone);
+        Optional.ofNullable(patch.email()).ifPresent(laboratory::setEmail);
+        Optional.ofNullable(patch.website()).ifPresent(laboratory::setWebsite);
+        Optional.ofNullable(patch.specialty()).ifPresent(laboratory::setSpecialty);
+        laboratory.setVersion(laboratory.getVersion() + 1);
+        laboratory.setUpdatedAt(updatedAt);
+        return laboratory;
     }
 
     /**
      * Elimina un laboratorio por su ID.
+     * Se lee el laboratorio antes de eliminarlo para conocer su especialidad y
+     * nombre, necesarios para invalidar la caché de forma precisa. En la misma
+     * transacción se registra la marca de eliminación para la sincronización
+     * incremental.
      * 
      * @param id ID del laboratorio a eliminar.
      */
     @Override
+    @Transactional
     public void deleteLaboratory(Long id) {
-        laboratoryRepository.deleteById(id);
+        laboratoryRepository.findById(id).ifPresent(existingLab -> {
+            laboratoryRepository.delete(existingLab);
+            entityManager.persist(new LaboratoryTombstone(existingLab.getId(), Instant.now()));
+            eventPublisher.publishEvent(LaboratoryChangedEvent.deleted(existingLab));
+        });
+    }
+
+    /**
+     * Sincronización incremental por fecha de modificación. Los cambios y
+     * las eliminaciones se recorren con paginación keyset sobre
+     * {@code (fecha, ID)}, por lo que el costo depende de la cantidad de
+     * cambios y no del tamaño de la tabla.
+     * Solo se entregan los cambios con más de
+     * {@code laboratory.sync.commit-lag-ms} de antigüedad: una transacción
+     * puede confirmarse después de otra con fecha de modificación posterior,
+     * y este margen evita que el token avance más allá de ella. Sin token se
+     * entrega el registro completo y solo las eliminaciones posteriores.
+     *
+     * @param token Token de la sincronización anterior, o {@code null}.
+     * @param size  Cantidad máxima de cambios de cada tipo, o {@code null}.
+     * @return Cambios desde el token y el token siguiente.
+     * @throws IllegalArgumentException  si el token o el tamaño no son
+     *                                   válidos.
+     * @throws SyncTokenExpiredException si el token es anterior a la
+     *                                   retención de las eliminaciones.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public LaboratorySyncPage sync(String token, Integer size) {
+        if (size != null && size < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que cero");
+        }
+        int pageSize = Math.min(size == null ? defaultSyncSize : size, maxSyncSize);
+        Instant now = Instant.now();
+        Instant until = now.minus(syncCommitLag);
+        SyncToken position = token == null || token.isBlank() ? SyncToken.initial(until) : SyncToken.decode(token);
+        if (position.deletedAt().isBefore(now.minus(tombstoneRetention))) {
+            throw new SyncTokenExpiredException("El token de sincronización es anterior a la retención de "
+                    + tombstoneRetention.toDays() + " días; vuelva a sincronizar sin token");
+        }
+
+        List<Laboratory> changed = laboratoryRepository.findModifiedSince(position.changedAt(),
+                position.changedId(), until, Limit.of(pageSize + 1));
+        List<LaboratoryTombstone> deleted = tombstoneRepository.findDeletedSince(position.deletedAt(),
+                position.deletedId(), until, Limit.of(pageSize + 1));
+        boolean moreChanged = changed.size() > pageSize;
+        boolean moreDeleted = deleted.size() > pageSize;
+        if (moreChanged) {
+            changed = changed.subList(0, pageSize);
+        }
+        if (moreDeleted) {
+            deleted = deleted.subList(0, pageSize);
+        }
+
+        Laboratory lastChanged = moreChanged ? changed.get(pageSize - 1) : null;
+        LaboratoryTombstone lastDeleted = moreDeleted ? deleted.get(pageSize - 1) : null;
+        SyncToken next = new SyncToken(
+                lastChanged != null ? lastChanged.getUpdatedAt() : max(position.changedAt(), until),
+                lastChanged != null ? lastChanged.getId() : Long.MAX_VALUE,
+                lastDeleted != null ? lastDeleted.getDeletedAt() : max(position.deletedAt(), until),
+                lastDeleted != null ? lastDeleted.getId() : Long.MAX_VALUE);
+        return new LaboratorySyncPage(changed, deleted.stream().map(LaboratoryTombstone::getId).toList(),
+                moreChanged || moreDeleted, next.encode());
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
     }
 
     /**
-     * Busca laboratorios por especialidad.
+     * Busca laboratorios por especialidad, consultando primero la caché.
      * 
      * @param specialty Especialidad a buscar.
      * @return Lista de laboratorios con la especialidad indicada.
      */
     @Override
     public List<Laboratory> findBySpecialty(String specialty) {
-        return laboratoryRepository.findBySpecialty(specialty);
+        return laboratoryCache.getBySpecialty(specialty,
+                () -> readOnly(() -> laboratoryRepository.findBySpecialty(specialty)));
     }
 
     /**
      * Busca laboratorios por nombre (búsqueda parcial, sin distinguir
      * mayúsculas/minúsculas).
+     * Si el índice de trigramas está disponible, los IDs se obtienen en
+     * memoria y solo se cargan por clave primaria los laboratorios a devolver;
+     * en caso contrario se consulta la base de datos a través de la caché.
      * 
-     * @param name Nombre o parte del nombre a buscar.
-     * @return Lista de laboratorios que coinciden con el nombre.
+     * @param name  Nombre o parte del nombre a buscar.
+     * @param limit Cantidad máxima de resultados, o {@code null} para no
+     *              limitar.
+     * @return Lista de laboratorios que coinciden con el nombre, ordenada por
+     *         ID.
+     * @throws IllegalArgumentException si el límite no es positivo.
      */
     @Override
-    public List<Laboratory> findByName(String name) {
-        return laboratoryRepository.findByNameContainingIgnoreCase(name);
+    public List<Laboratory> findByName(String name, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("El límite de resultados debe ser mayor que cero");
+        }
+        int maxResults = limit == null ? Integer.MAX_VALUE : limit;
+        return trigramNameIndex.search(name, maxResults)
+                .map(this::getLaboratoriesInOrder)
+                .orElseGet(() -> {
+                    List<Laboratory> laboratories = laboratoryCache.getByName(name,
+                            () -> readOnly(() -> laboratoryRepository.findByNameContainingIgnoreCase(name)));
+                    return laboratories.size() > maxResults ? laboratories.subList(0, maxResults) : laboratories;
+                });
+    }
+
+    /**
+     * Obtiene los primeros laboratorios, en orden alfabético, cuyo nombre
+     * comienza con el prefijo indicado. Se responde desde el índice de
+     * prefijos en memoria; la base de datos solo se consulta mientras el
+     * índice se está construyendo.
+     *
+     * @param prefix Prefijo del nombre.
+     * @param limit  Cantidad máxima de resultados, o {@code null}.
+     * @return Pares ID/nombre de los laboratorios encontrados.
+     * @throws IllegalArgumentException si el límite no es positivo.
+     */
+    @Override
+    public List<LaboratoryNameView> autocomplete(String prefix, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("El límite de resultados debe ser mayor que cero");
+        }
+        int maxResults = Math.min(limit == null ? defaultAutocompleteLimit : limit, maxAutocompleteLimit);
+        return namePrefixIndex.complete(prefix, maxResults)
+                .orElseGet(() -> readOnly(() -> laboratoryRepository.findNamesByPrefix(
+                        escapeLike(prefix.toUpperCase(Locale.ROOT)) + "%", Limit.of(maxResults))));
+    }
+
+    /**
+     * Búsqueda de texto completo con resultados ordenados por relevancia.
+     * El índice selecciona solo los mejores {@code (page + 1) * size}
+     * resultados, con un máximo configurable, y únicamente los de la página
+     * solicitada se cargan por clave primaria a través de la caché.
+     *
+     * @param query Texto de la consulta.
+     * @param page  Número de página (comenzando en 0), o {@code null}.
+     * @param size  Tamaño de página, o {@code null}.
+     * @return Página de resultados ordenados por relevancia.
+     * @throws IllegalArgumentException    si la consulta está vacía o la
+     *                                     paginación no es válida.
+     * @throws ServiceUnavailableException si el índice aún se está
+     *                                     construyendo.
+     */
+    @Override
+    public SearchResultPage<Laboratory> search(String query, Integer page, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("La consulta de búsqueda es obligatoria");
+        }
+        int pageNumber = page == null ? 0 : page;
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("El número de página no puede ser negativo");
+        }
+        int pageSize = resolvePageSize(size);
+        long window = Math.min((long) (pageNumber + 1) * pageSize, maxSearchResults);
+        LaboratoryTextIndex.RankedIds ranked = laboratoryTextIndex.search(query, (int) window)
+                .orElseThrow(() -> new ServiceUnavailableException(
+                        "El índice de búsqueda se está construyendo, intente nuevamente en unos segundos"));
+        List<LaboratoryTextIndex.ScoredId> pageHits = ranked.hits().stream()
+                .skip((long) pageNumber * pageSize)
+                .toList();
+        Map<Long, Laboratory> laboratories = laboratoryCache.getAllById(
+                pageHits.stream().map(LaboratoryTextIndex.ScoredId::id).toList(), this::loadByIds);
+        List<SearchHit<Laboratory>> hits = pageHits.stream()
+                .filter(hit -> laboratories.containsKey(hit.id()))
+                .map(hit -> new SearchHit<>(laboratories.get(hit.id()), hit.score()))
+                .toList();
+        return new SearchResultPage<>(hits, ranked.total(), pageNumber, pageSize);
+    }
+
+    /**
+     * Obtiene los laboratorios indicados a través de la caché, conservando el
+     * orden de los IDs y omitiendo los que ya no existen.
+     */
+    private List<Laboratory> getLaboratoriesInOrder(List<Long> ids) {
+        Map<Long, Laboratory> found = laboratoryCache.getAllById(ids, this::loadByIds);
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Carga laboratorios por clave primaria en consultas IN de a lo sumo
+     * {@code laboratory.batch.chunk-size} elementos (como máximo
+     * {@value LaboratoryRepository#MAX_IN_LIST_SIZE}).
+     */
+    private Map<Long, Laboratory> loadByIds(Set<Long> ids) {
+        return readOnly(() -> {
+            List<Long> pending = new ArrayList<>(ids);
+            Map<Long, Laboratory> found = new HashMap<>();
+            for (int from = 0; from < pending.size(); from += idChunkSize) {
+                List<Long> chunk = pending.subList(from, Math.min(from + idChunkSize, pending.size()));
+                laboratoryRepository.findAllById(chunk)
+                        .forEach(laboratory -> found.put(laboratory.getId(), laboratory));
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Ejecuta una carga desde la base de datos en una transacción de solo
+     * lectura propia. Si ya hay una transacción en curso (por ejemplo, dentro
+     * de una escritura), la carga se une a ella.
+     */
+    private <T> T readOnly(Supplier<T> query) {
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que cero");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            return Long.parseLong(decoded);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Cursor de paginación inválido: " + cursor);
+        }
+    }
+
+    /**
+     * Posición de una sincronización: último cambio y última eliminación
+     * entregados, como pares (fecha, ID).
+     */
+    private record SyncToken(Instant changedAt, long changedId, Instant deletedAt, long deletedId) {
+
+        static SyncToken initial(Instant until) {
+            return new SyncToken(Instant.EPOCH, 0L, until, Long.MAX_VALUE);
+        }
+
+        static SyncToken decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII)
+                        .split("\\|");
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("Token de sincronización inválido: " + token);
+                }
+                return new SyncToken(Instant.parse(parts[0]), Long.parseLong(parts[1]), Instant.parse(parts[2]),
+                        Long.parseLong(parts[3]));
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                throw new IllegalArgumentException("Token de sincronización inválido: " + token);
+            }
+        }
+
+        String encode() {
+            String value = changedAt + "|" + changedId + "|" + deletedAt + "|" + deletedId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * Convierte un texto en un patrón LIKE de tipo "contiene", escapando los
+     * comodines para conservar la semántica de
+     * {@link LaboratoryRepository#findByNameContainingIgnoreCase(String)}.
+     */
+    private static String toLikePattern(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return "%" + escapeLike(name) + "%";
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.exp2.service;
+
+import com.exp2.repository.LaboratoryTombstoneRepository;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Elimina periódicamente las marcas de eliminación más antiguas que la
+ * retención de la sincronización incremental. Los tokens anteriores a esa
+ * retención se rechazan con 410, por lo que esas marcas ya no se consultan.
+ */
+@Slf4j
+@Component
+public class LaboratoryTombstonePurger {
+
+    private final LaboratoryTombstoneRepository tombstoneRepository;
+    private final Duration retention;
+
+    public LaboratoryTombstonePurger(LaboratoryTombstoneRepository tombstoneRepository,
+            @Value("${laboratory.sync.tombstone-retention-days:30}") long retentionDays) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    /**
+     * Elimina las marcas anteriores a la retención.
+     */
+    @Scheduled(fixedDelayString = "${laboratory.sync.purge-interval-ms:3600000}",
+            initialDelayString = "${laboratory.sync.purge-interval-ms:3600000}")
+    @Transactional
+    public void purge() {
+        int removed = tombstoneRepository.deleteOlderThan(Instant.now().minus(retention));
+        if (removed > 0) {
+            log.info("Se eliminaron {} marcas de eliminación anteriores a {} días", removed, retention.toDays());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.exp2.service;
+
+import com.exp2.model.Laboratory;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interfaz que define las escrituras diferidas (write-behind) de laboratorios.
+ * Las altas y las actualizaciones completas se encolan y se escriben en lotes,
+ * varias en una misma transacción; el resultado de cada una se entrega de
+ * forma asíncrona cuando su lote se confirma.
+ */
+public interface LaboratoryWriteBehindService {
+
+    /**
+     * Encola el alta de un laboratorio.
+     *
+     * @param laboratory Laboratorio a guardar, ya validado.
+     * @return Laboratorio guardado, o un error de nombre duplicado o de cola
+     *         llena.
+     */
+    CompletableFuture<Laboratory> saveLaboratory(Laboratory laboratory);
+
+    /**
+     * Encola la actualización completa de un laboratorio. Si hay varias
+     * actualizaciones del mismo laboratorio en un lote, solo se escribe la
+     * última y todas reciben su resultado.
+     *
+     * @param id         ID del laboratorio a actualizar.
+     * @param laboratory Datos nuevos del laboratorio, ya validados.
+     * @return Laboratorio actualizado, o un error de nombre duplicado, de
+     *         laboratorio inexistente o de cola llena.
+     */
+    CompletableFuture<Laboratory> updateLaboratory(Long id, Laboratory laboratory);
+}
@@ -0,0 +1,383 @@
+package com.exp2.service;
+
+import com.exp2.cache.LaboratoryNameIndex;
+import com.exp2.event.LaboratoryChangedEvent;
+import com.exp2.exception.DuplicateResourceException;
+import com.exp2.exception.ResourceNotFoundException;
+import com.exp2.exception.ServiceUnavailableException;
+import com.exp2.model.Laboratory;
+import com.exp2.repository.LaboratoryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementación de la interfaz {@link LaboratoryWriteBehindService}.
+ * Se habilita con {@code laboratory.write-behind.enabled}.
+ * Las peticiones llegan validadas por el controlador, igual que sin
+ * escrituras diferidas; al encolarse se contrastan con
+ * {@link LaboratoryNameIndex} y luego se agregan a un {@link MpscRingBuffer}
+ * acotado. Un
+ * único hilo las extrae y escribe un lote cuando reúne
+ * {@code laboratory.write-behind.batch-size} escrituras o cuando la más
+ * antigua lleva {@code laboratory.write-behind.max-delay-ms} esperando, todo
+ * en una transacción y con sentencias JDBC agrupadas. Así se usa una sola
+ * conexión por lote en lugar de una por petición.
+ * Las actualizaciones repetidas de un mismo ID dentro del lote se combinan en
+ * una sola. Si el lote falla (por ejemplo, por un nombre insertado por otra
+ * instancia), se reintenta escritura por escritura para que cada una reciba
+ * su propio error. Si la cola está llena, la escritura se rechaza con 503.
+ * Al detener la aplicación se escriben las pendientes y se rechazan con 503
+ * las que llegan después, también las que se encolan mientras el hilo
+ * escritor termina.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "laboratory.write-behind.enabled", havingValue = "true")
+public class LaboratoryWriteBehindServiceImpl implements LaboratoryWriteBehindService {
+
+    /**
+     * Espera máxima del hilo escritor sin escrituras pendientes; los
+     * productores lo despiertan antes al encolar.
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LaboratoryRepository laboratoryRepository;
+    private final LaboratoryNameIndex laboratoryNameIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MpscRingBuffer<PendingWrite> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final DistributionSummary batchSizes;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile boolean writerParked;
+
+    public LaboratoryWriteBehindServiceImpl(LaboratoryRepository laboratoryRepository,
+            LaboratoryNameIndex laboratoryNameIndex, EntityManager entityManager,
+            PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${laboratory.write-behind.capacity:4096}") int capacity,
+            @Value("${laboratory.write-behind.batch-size:200}") int batchSize,
+            @Value("${laboratory.write-behind.max-delay-ms:5}") long maxDelayMillis) {
+        this.laboratoryRepository = laboratoryRepository;
+        this.laboratoryNameIndex = laboratoryNameIndex;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new MpscRingBuffer<>(capacity);
+        this.batchSize = Math.max(1, Math.min(batchSize, LaboratoryRepository.MAX_IN_LIST_SIZE));
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxDelayMillis));
+        this.writer = Thread.ofPlatform().name("laboratory-write-behind").daemon().unstarted(this::run);
+        Gauge.builder("laboratory.write-behind.queued", queue, MpscRingBuffer::size)
+                .description("Escrituras diferidas pendientes")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("laboratory.write-behind.batch.size")
+                .description("Escrituras por lote confirmado")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+        log.info("Escrituras diferidas habilitadas: capacidad {}, lotes de hasta {} en {} ms", queue.capacity(),
+                batchSize, TimeUnit.NANOSECONDS.toMillis(maxDelayNanos));
+    }
+
+    /**
+     * Deja de aceptar escrituras y espera a que se escriban las pendientes.
+     * Las que se encolaron después de que el hilo escritor vio la cola vacía
+     * se rechazan.
+     *
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        if (!writer.join(SHUTDOWN_TIMEOUT)) {
+            log.warn("Quedaron {} escrituras diferidas sin escribir al detener la aplicación", queue.size());
+            return;
+        }
+        failPending();
+    }
+
+    @Override
+    public CompletableFuture<Laboratory> saveLaboratory(Laboratory laboratory) {
+        return enqueue(null, laboratory);
+    }
+
+    @Override
+    public CompletableFuture<Laboratory> updateLaboratory(Long id, Laboratory laboratory) {
+        return enqueue(id, laboratory);
+    }
+
+    private CompletableFuture<Laboratory> enqueue(Long id, Laboratory laboratory) {
+        if (laboratoryNameIndex.isTaken(laboratory.getName(), id == null ? 0L : id)) {
+            return CompletableFuture.failedFuture(duplicateName(laboratory.getName()));
+        }
+        if (!running) {
+            return CompletableFuture.failedFuture(stopping());
+        }
+        PendingWrite write = new PendingWrite(id, laboratory, new CompletableFuture<>());
+        if (!queue.offer(write)) {
+            return CompletableFuture.failedFuture(new ServiceUnavailableException(
+                    "Hay demasiadas escrituras pendientes, intente nuevamente en unos segundos"));
+        }
+        if (!running && !writer.isAlive()) {
+            // El hilo escritor terminó entre la comprobación y el encolado:
+            // nadie más va a leer esta escritura.
+            failPending();
+        }
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        return write.result();
+    }
+
+    /**
+     * Rechaza las escrituras que quedaron en la cola después de que terminó el
+     * hilo escritor. Se sincroniza porque la cola admite un solo consumidor:
+     * pueden llamarlo a la vez {@link #stop()} y los productores rezagados.
+     */
+    private synchronized void failPending() {
+        PendingWrite write;
+        while ((write = queue.poll()) != null) {
+            write.result().completeExceptionally(stopping());
+        }
+    }
+
+    private static ServiceUnavailableException stopping() {
+        return new ServiceUnavailableException(
+                "La aplicación se está deteniendo, intente nuevamente en unos segundos");
+    }
+
+    /**
+     * Ciclo del hilo escritor: arma lotes con las escrituras encoladas y los
+     * escribe hasta que la aplicación se detiene y la cola queda vacía.
+     */
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || queue.size() > 0) {
+            PendingWrite first = queue.poll();
+            if (first == null) {
+                park(IDLE_PARK_NANOS);
+                continue;
+            }
+            batch.add(first);
+            long deadline = System.nanoTime() + maxDelayNanos;
+            while (batch.size() < batchSize) {
+                PendingWrite next = queue.poll();
+                if (next != null) {
+                    batch.add(next);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) {
+                    break;
+                }
+                park(remaining);
+            }
+            try {
+                flush(batch);
+            } catch (RuntimeException ex) {
+                log.error("Error inesperado al escribir un lote diferido", ex);
+                batch.forEach(write -> write.result().completeExceptionally(ex));
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Detiene el hilo escritor hasta que un productor lo despierte o se cumpla
+     * el plazo. La marca se publica antes de revisar la cola, de modo que un
+     * productor que encola después de la revisión siempre ve la marca.
+     */
+    private void park(long nanos) {
+        writerParked = true;
+        if (queue.size() == 0 && running) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        writerParked = false;
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        List<WriteGroup> groups = coalesce(batch);
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeInTransaction(groups));
+            batchSizes.record(groups.size());
+        } catch (RuntimeException ex) {
+            if (groups.size() == 1) {
+                groups.get(0).fail(translate(ex, groups.get(0)));
+            } else {
+                log.warn("Falló un lote de {} escrituras diferidas, reintentando una a una: {}", groups.size(),
+                        ex.getMessage());
+                for (WriteGroup group : groups) {
+                    group.reset();
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> writeInTransaction(List.of(group)));
+                        batchSizes.record(1);
+                    } catch (RuntimeException rowEx) {
+                        group.fail(translate(rowEx, group));
+                    }
+                }
+            }
+        }
+        groups.forEach(WriteGroup::complete);
+    }
+
+    /**
+     * Agrupa las escrituras del lote: cada alta es un grupo y las
+     * actualizaciones de un mismo ID se combinan conservando la última.
+     */
+    private static List<WriteGroup> coalesce(List<PendingWrite> batch) {
+        List<WriteGroup> groups = new ArrayList<>(batch.size());
+        Map<Long, WriteGroup> updatesById = new HashMap<>();
+        for (PendingWrite write : batch) {
+            WriteGroup group = write.id() == null ? null : updatesById.get(write.id());
+            if (group == null) {
+                group = new WriteGroup(write.id());
+                groups.add(group);
+                if (write.id() != null) {
+                    updatesById.put(write.id(), group);
+                }
+            }
+            group.add(write);
+        }
+        return groups;
+    }
+
+    private void writeInTransaction(List<WriteGroup> groups) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        List<Long> ids = groups.stream().filter(group -> group.id != null).map(group -> group.id).toList();
+        Map<Long, Laboratory> existing = new HashMap<>();
+        if (!ids.isEmpty()) {
+            laboratoryRepository.findAllById(ids).forEach(laboratory -> existing.put(laboratory.getId(), laboratory));
+        }
+
+        Set<String> namesInBatch = new HashSet<>();
+        List<Laboratory> inserts = new ArrayList<>();
+        Map<WriteGroup, Laboratory> previousStates = new LinkedHashMap<>();
+        for (WriteGroup group : groups) {
+            Laboratory incoming = group.laboratory;
+            if (!namesInBatch.add(incoming.getName())) {
+                group.error = duplicateName(incoming.getName());
+            } else if (group.id == null) {
+                incoming.setId(0L);
+                incoming.setVersion(null);
+                inserts.add(incoming);
+                group.written = incoming;
+            } else {
+                Laboratory current = existing.get(group.id);
+                if (current == null) {
+                    group.error = new ResourceNotFoundException("Laboratorio no encontrado con ID: " + group.id);
+                } else {
+                    previousStates.put(group, current.copy());
+                    current.setName(incoming.getName());
+                    current.setAddress(incoming.getAddress());
+                    current.setPhone(incoming.getPhone());
+                    current.setEmail(incoming.getEmail());
+                    current.setWebsite(incoming.getWebsite());
+                    current.setSpecialty(incoming.getSpecialty());
+                    group.written = current;
+                }
+            }
+        }
+
+        laboratoryRepository.saveAll(inserts);
+        laboratoryRepository.flush();
+        for (Laboratory laboratory : inserts) {
+            eventPublisher.publishEvent(LaboratoryChangedEvent.created(laboratory));
+        }
+        previousStates.forEach((group, previous) ->
+                eventPublisher.publishEvent(LaboratoryChangedEvent.updated(previous, group.written)));
+    }
+
+    private static RuntimeException translate(RuntimeException ex, WriteGroup group) {
+        if (ex instanceof DataIntegrityViolationException) {
+            return duplicateName(group.laboratory.getName());
+        }
+        return ex;
+    }
+
+    private static DuplicateResourceException duplicateName(String name) {
+        return new DuplicateResourceException("Ya existe un laboratorio con el nombre: " + name);
+    }
+
+    /**
+     * Escritura encolada: ID a actualizar ({@code null} para un alta), datos
+     * y resultado pendiente.
+     */
+    private record PendingWrite(Long id, Laboratory laboratory, CompletableFuture<Laboratory> result) {
+    }
+
+    /**
+     * Escrituras de un lote que se resuelven con una sola sentencia: un alta,
+     * o todas las actualizaciones de un mismo ID. Solo la usa el hilo
+     * escritor.
+     */
+    private static final class WriteGroup {
+
+        private final Long id;
+        private final List<CompletableFuture<Laboratory>> results = new ArrayList<>(1);
+        private Laboratory laboratory;
+        private Laboratory written;
+        private RuntimeException error;
+
+        private WriteGroup(Long id) {
+            this.id = id;
+        }
+
+        private void add(PendingWrite write) {
+            laboratory = write.laboratory();
+            results.add(write.result());
+        }
+
+        private void reset() {
+            written = null;
+            error = null;
+        }
+
+        private void fail(RuntimeException ex) {
+            written = null;
+            error = ex;
+        }
+
+        private void complete() {
+            for (CompletableFuture<Laboratory> result : results) {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(written);
+                }
+            }
+        }
+    }
+}
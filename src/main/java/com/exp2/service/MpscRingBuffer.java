@@ -0,0 +1,99 @@
+package com.exp2.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cola acotada sin bloqueos para varios productores y un único consumidor,
+ * basada en el búfer circular de Dmitry Vyukov.
+ * Cada celda tiene un número de secuencia que indica si está libre para el
+ * productor que reservó esa posición o lista para el consumidor, de modo que
+ * los productores solo compiten por un CAS sobre la cola y nunca esperan al
+ * consumidor. Si el búfer está lleno, {@link #offer(Object)} devuelve
+ * {@code false} en lugar de esperar.
+ *
+ * @param <E> Tipo de los elementos.
+ */
+final class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity Capacidad mínima; se redondea a la siguiente potencia de
+     *                 dos.
+     */
+    MpscRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor que cero");
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.elements = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            sequences.setPlain(i, i);
+        }
+    }
+
+    /**
+     * Agrega un elemento. Puede llamarse desde cualquier hilo.
+     *
+     * @param element Elemento a agregar.
+     * @return {@code false} si el búfer está lleno.
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.setPlain(index, element);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Extrae el elemento más antiguo. Solo debe llamarse desde el hilo
+     * consumidor.
+     *
+     * @return Elemento extraído, o {@code null} si no hay elementos
+     *         publicados.
+     */
+    E poll() {
+        long position = head.getPlain();
+        int index = (int) position & mask;
+        if (sequences.getAcquire(index) != position + 1) {
+            return null;
+        }
+        E element = elements.getPlain(index);
+        elements.setPlain(index, null);
+        sequences.setRelease(index, position + mask + 1);
+        head.setRelease(position + 1);
+        return element;
+    }
+
+    /**
+     * Cantidad aproximada de elementos en el búfer, para métricas.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.getAcquire());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,52 @@
+package com.exp2;
+
+import com.exp2.model.Laboratory;
+
+/**
+ * Laboratorios de ejemplo compartidos por las pruebas unitarias.
+ */
+public final class LaboratoryFixtures {
+
+    private LaboratoryFixtures() {
+    }
+
+    /**
+     * Crea un laboratorio con el nombre {@code "Laboratorio <id>"}.
+     *
+     * @param id ID del laboratorio.
+     * @return Laboratorio con ID, nombre, especialidad y versión 0.
+     */
+    public static Laboratory laboratory(long id) {
+        return laboratory(id, "Laboratorio " + id);
+    }
+
+    /**
+     * Crea un laboratorio con la especialidad {@code "General"}.
+     *
+     * @param id   ID del laboratorio, o 0 para uno sin guardar.
+     * @param name Nombre del laboratorio.
+     * @return Laboratorio con ID, nombre, especialidad y versión 0.
+     */
+    public static Laboratory laboratory(long id, String name) {
+        return laboratory(id, name, "General", null);
+    }
+
+    /**
+     * Crea un laboratorio con la especialidad y la dirección indicadas.
+     *
+     * @param id        ID del laboratorio.
+     * @param name      Nombre del laboratorio.
+     * @param specialty Especialidad.
+     * @param address   Dirección.
+     * @return Laboratorio con versión 0.
+     */
+    public static Laboratory laboratory(long id, String name, String specialty, String address) {
+        Laboratory laboratory = new Laboratory();
+        laboratory.setId(id);
+        laboratory.setName(name);
+        laboratory.setSpecialty(specialty);
+        laboratory.setAddress(address);
+        laboratory.setVersion(0L);
+        return laboratory;
+    }
+}
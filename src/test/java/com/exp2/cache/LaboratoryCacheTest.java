@@ -0,0 +1,75 @@
+package com.exp2.cache;
+
+import static com.exp2.LaboratoryFixtures.laboratory;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.exp2.event.LaboratoryChangedEvent;
+import com.exp2.model.Laboratory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class LaboratoryCacheTest {
+
+    private final LaboratoryCache cache = new LaboratoryCache(new SimpleMeterRegistry(), true, 100, 300);
+    private final List<Set<Long>> queries = new ArrayList<>();
+
+    @Test
+    void batchLookupQueriesOnlyMissingIdsAndKeepsRequestOrder() {
+        cache.getById(2L, id -> Optional.of(laboratory(id, "Laboratorio 2")));
+
+        Map<Long, Laboratory> found = cache.getAllById(List.of(3L, 2L, 1L, 99L), this::load);
+
+        assertThat(found.keySet()).containsExactly(3L, 2L, 1L);
+        assertThat(queries).containsExactly(Set.of(3L, 1L, 99L));
+        assertThat(cache.peekById(1L)).isPresent();
+        assertThat(cache.peekById(99L)).isEmpty();
+    }
+
+    @Test
+    void invalidationDuringBatchLoadIsNotOverwritten() {
+        Map<Long, Laboratory> found = cache.getAllById(List.of(1L, 2L), ids -> {
+            Map<Long, Laboratory> loaded = load(ids);
+            cache.onLaboratoryChanged(LaboratoryChangedEvent.updated(laboratory(2L, "Laboratorio 2"),
+                    laboratory(2L, "Laboratorio Renombrado")));
+            return loaded;
+        });
+
+        assertThat(found).containsOnlyKeys(1L, 2L);
+        assertThat(cache.peekById(1L)).isPresent();
+        assertThat(cache.peekById(2L)).isEmpty();
+    }
+
+    @Test
+    void batchLookupReturnsCopiesDetachedFromTheLoader() {
+        Laboratory original = laboratory(1L, "Laboratorio 1");
+
+        Laboratory cached = cache.getAllById(List.of(1L), ids -> Map.of(1L, original)).get(1L);
+        original.setName("Modificado");
+
+        assertThat(cached.getName()).isEqualTo("Laboratorio 1");
+        assertThat(cache.peekById(1L)).map(Laboratory::getName).contains("Laboratorio 1");
+    }
+
+    @Test
+    void disabledCacheStillLoadsBatchesWithoutStoring() {
+        LaboratoryCache disabled = new LaboratoryCache(new SimpleMeterRegistry(), false, 100, 300);
+
+        assertThat(disabled.getAllById(List.of(1L, 2L), this::load)).containsOnlyKeys(1L, 2L);
+        assertThat(disabled.getAllById(List.of(1L, 2L), this::load)).containsOnlyKeys(1L, 2L);
+        assertThat(queries).hasSize(2);
+        assertThat(disabled.peekById(1L)).isEmpty();
+    }
+
+    private Map<Long, Laboratory> load(Set<Long> ids) {
+        queries.add(Set.copyOf(ids));
+        Map<Long, Laboratory> loaded = new HashMap<>();
+        ids.stream().filter(id -> id < 50).forEach(id -> loaded.put(id, laboratory(id, "Laboratorio " + id)));
+        return loaded;
+    }
+}
@@ -0,0 +1,78 @@
+package com.exp2.cache;
+
+import static com.exp2.LaboratoryFixtures.laboratory;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.exp2.dto.LaboratoryNameView;
+import com.exp2.event.LaboratoryChangedEvent;
+import com.exp2.repository.LaboratoryRepository;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class LaboratoryNameIndexTest {
+
+    private LaboratoryRepository repository;
+    private LaboratoryNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(LaboratoryRepository.class);
+        index = new LaboratoryNameIndex(repository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void answersFalseUntilLoaded() {
+        assertThat(index.isTaken("Laboratorio Central", 0L)).isFalse();
+    }
+
+    @Test
+    void knownNamesAreTakenExceptByTheirOwner() {
+        load(new LaboratoryNameView(1, "Laboratorio Central"));
+
+        assertThat(index.isTaken("Laboratorio Central", 0L)).isTrue();
+        assertThat(index.isTaken("Laboratorio Central", 2L)).isTrue();
+        assertThat(index.isTaken("Laboratorio Central", 1L)).isFalse();
+        assertThat(index.isTaken("Laboratorio Norte", 0L)).isFalse();
+        assertThat(index.isTaken("laboratorio central", 0L)).isFalse();
+    }
+
+    @Test
+    void failedLoadLeavesTheDecisionToTheDatabase() {
+        when(repository.streamAllNames()).thenThrow(new IllegalStateException("sin conexión"));
+        index.load();
+
+        assertThat(index.isTaken("Laboratorio Central", 0L)).isFalse();
+    }
+
+    @Test
+    void followsRenamesAndDeletesOfThisInstance() {
+        load(new LaboratoryNameView(1, "Laboratorio Central"));
+
+        index.onLaboratoryChanged(LaboratoryChangedEvent.updated(null, laboratory(1, "Laboratorio Sur")));
+        assertThat(index.isTaken("Laboratorio Central", 0L)).isFalse();
+        assertThat(index.isTaken("Laboratorio Sur", 0L)).isTrue();
+
+        index.onLaboratoryChanged(LaboratoryChangedEvent.deleted(laboratory(1, "Laboratorio Sur")));
+        assertThat(index.isTaken("Laboratorio Sur", 0L)).isFalse();
+    }
+
+    @Test
+    void changesDuringLoadWinOverLoadedRows() {
+        when(repository.streamAllNames()).thenAnswer(invocation -> {
+            index.onLaboratoryChanged(LaboratoryChangedEvent.deleted(laboratory(1, "Laboratorio Central")));
+            return Stream.of(new LaboratoryNameView(1, "Laboratorio Central"));
+        });
+        index.load();
+
+        assertThat(index.isTaken("Laboratorio Central", 0L)).isFalse();
+    }
+
+    private void load(LaboratoryNameView... names) {
+        when(repository.streamAllNames()).thenReturn(Stream.of(names));
+        index.load();
+    }
+}
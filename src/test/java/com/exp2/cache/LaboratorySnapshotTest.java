@@ -0,0 +1,69 @@
+package com.exp2.cache;
+
+import static com.exp2.LaboratoryFixtures.laboratory;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.exp2.model.Laboratory;
+import com.exp2.service.LaboratoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LaboratorySnapshotTest {
+
+    private LaboratoryService service;
+    private LaboratorySnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        service = mock(LaboratoryService.class);
+        snapshot = new LaboratorySnapshot(service, new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry(), false, 0, 10, 40);
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshot.stop();
+    }
+
+    @Test
+    void failedFirstBuildIsRetriedWithoutWaitingForAWrite() throws Exception {
+        when(service.exportLaboratories(any()))
+                .thenThrow(new IllegalStateException("base de datos no disponible"))
+                .thenThrow(new IllegalStateException("base de datos no disponible"))
+                .thenAnswer(invocation -> {
+                    Consumer<Laboratory> consumer = invocation.getArgument(0);
+                    consumer.accept(laboratory(1, "Laboratorio Central"));
+                    return 1L;
+                });
+
+        snapshot.onApplicationReady();
+        waitUntil(() -> snapshot.current() != null);
+
+        verify(service, times(3)).exportLaboratories(any());
+        assertThat(snapshot.current().count()).isEqualTo(1);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        snapshot.current().writeTo(body, false);
+        assertThat(body.toString(StandardCharsets.UTF_8)).contains("Laboratorio Central");
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
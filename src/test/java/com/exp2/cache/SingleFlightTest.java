@@ -0,0 +1,187 @@
+package com.exp2.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> flight = new SingleFlight<>();
+    private final Map<Long, String> stored = new ConcurrentHashMap<>();
+
+    @Test
+    void concurrentLoadsOfTheSameKeyShareOneQuery() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> flight.load(1L, () -> {
+            queries.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "uno";
+        }, value -> stored.put(1L, value)));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> flight.load(1L, () -> {
+            queries.incrementAndGet();
+            return "otro";
+        }, value -> stored.put(1L, value)));
+        waitUntil(() -> flight.coalesced() == 1);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("uno");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("uno");
+        assertThat(queries).hasValue(1);
+        assertThat(flight.loads()).isEqualTo(1);
+        assertThat(stored).containsExactly(Map.entry(1L, "uno"));
+    }
+
+    @Test
+    void loadsAreNotSharedAcrossPartitions() throws Exception {
+        ThreadLocal<Boolean> primaryReads = ThreadLocal.withInitial(() -> false);
+        SingleFlight<Long, String> partitioned = new SingleFlight<>(primaryReads::get);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> replica = CompletableFuture.supplyAsync(() -> partitioned.load(1L, () -> {
+            loading.countDown();
+            await(release);
+            return "réplica";
+        }, value -> stored.put(1L, value)));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        String primary = CompletableFuture.supplyAsync(() -> {
+            primaryReads.set(true);
+            return partitioned.load(1L, () -> "primario", value -> stored.put(1L, value));
+        }).get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertThat(primary).isEqualTo("primario");
+        assertThat(replica.get(5, TimeUnit.SECONDS)).isEqualTo("réplica");
+        assertThat(partitioned.loads()).isEqualTo(2);
+        assertThat(partitioned.coalesced()).isZero();
+    }
+
+    @Test
+    void forgetDiscardsLoadsInEveryPartition() {
+        ThreadLocal<Boolean> primaryReads = ThreadLocal.withInitial(() -> true);
+        SingleFlight<Long, String> partitioned = new SingleFlight<>(primaryReads::get);
+
+        partitioned.load(1L, () -> {
+            partitioned.forget(1L);
+            return "anterior";
+        }, value -> stored.put(1L, value));
+
+        assertThat(stored).isEmpty();
+    }
+
+    @Test
+    void invalidationDuringLoadPreventsStoring() {
+        String value = flight.load(1L, () -> {
+            flight.forget(1L);
+            return "anterior";
+        }, loaded -> stored.put(1L, loaded));
+
+        assertThat(value).isEqualTo("anterior");
+        assertThat(stored).isEmpty();
+        flight.load(1L, () -> "nuevo", loaded -> stored.put(1L, loaded));
+        assertThat(stored).containsEntry(1L, "nuevo");
+    }
+
+    @Test
+    void failedLoadReleasesTheKey() {
+        assertThatThrownBy(() -> flight.load(1L, () -> {
+            throw new IllegalStateException("falla");
+        }, loaded -> stored.put(1L, loaded))).isInstanceOf(IllegalStateException.class);
+
+        assertThat(flight.load(1L, () -> "uno", loaded -> stored.put(1L, loaded))).isEqualTo("uno");
+        assertThat(flight.loads()).isEqualTo(2);
+    }
+
+    @Test
+    void loadAllStoresOnlyKeysStillRegistered() {
+        List<Long> storedKeys = new ArrayList<>();
+
+        Map<Long, String> values = flight.loadAll(List.of(3L, 1L, 2L, 1L), keys -> {
+            flight.forget(2L);
+            Map<Long, String> loaded = new HashMap<>();
+            keys.forEach(key -> loaded.put(key, "v" + key));
+            return loaded;
+        }, (key, value) -> storedKeys.add(key));
+
+        assertThat(values.keySet()).containsExactly(3L, 1L, 2L);
+        assertThat(storedKeys).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void loadAllReportsMissingKeysToStoreButNotInTheResult() {
+        Map<Long, String> storedValues = new HashMap<>();
+
+        Map<Long, String> values = flight.loadAll(List.of(1L, 2L), keys -> Map.of(1L, "uno"),
+                storedValues::put);
+
+        assertThat(values).containsExactly(Map.entry(1L, "uno"));
+        assertThat(storedValues).containsEntry(1L, "uno").containsEntry(2L, null);
+    }
+
+    @Test
+    void loadAllWaitsForKeysAlreadyLoadingInsteadOfQueryingThem() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> single = CompletableFuture.supplyAsync(() -> flight.load(1L, () -> {
+            loading.countDown();
+            await(release);
+            return "uno";
+        }, value -> stored.put(1L, value)));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        List<Set<Long>> queried = new ArrayList<>();
+
+        Map<Long, String> values = flight.loadAll(List.of(1L, 2L), keys -> {
+            queried.add(keys);
+            release.countDown();
+            return Map.of(2L, "dos");
+        }, stored::put);
+
+        assertThat(queried).containsExactly(Set.of(2L));
+        assertThat(values).containsExactly(Map.entry(1L, "uno"), Map.entry(2L, "dos"));
+        assertThat(single.get(5, TimeUnit.SECONDS)).isEqualTo("uno");
+        assertThat(flight.coalesced()).isEqualTo(1);
+    }
+
+    @Test
+    void failedLoadAllReleasesItsKeys() {
+        assertThatThrownBy(() -> flight.loadAll(List.of(1L, 2L), keys -> {
+            throw new IllegalStateException("falla");
+        }, stored::put)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(flight.load(2L, () -> "dos", value -> stored.put(2L, value))).isEqualTo("dos");
+        assertThat(stored).containsEntry(2L, "dos");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
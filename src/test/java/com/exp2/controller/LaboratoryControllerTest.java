@@ -0,0 +1,223 @@
+package com.exp2.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.exp2.cache.IdempotencyKeyStore;
+import com.exp2.cache.LaboratorySnapshot;
+import com.exp2.event.LaboratoryChangeFeed;
+import com.exp2.event.LaboratoryChangeTracker;
+import com.exp2.exception.GlobalExceptionHandler;
+import com.exp2.exception.SyncTokenExpiredException;
+import com.exp2.model.Laboratory;
+import com.exp2.service.LaboratoryImportService;
+import com.exp2.service.LaboratoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+class LaboratoryControllerTest {
+
+    private static final String VALID_BODY = """
+            {"name": "Laboratorio Central", "address": "Calle 1", "phone": "5551234567",
+             "email": "central@example.com", "specialty": "Genética"}
+            """;
+
+    private LaboratoryService service;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        service = mock(LaboratoryService.class);
+        mockMvc = mockMvc(null);
+    }
+
+    @Test
+    void createAnswersSynchronouslyWithoutWriteBehind() throws Exception {
+        when(service.saveLaboratory(any())).thenAnswer(invocation -> saved(invocation.getArgument(0), 7, 0));
+
+        mockMvc.perform(post("/api/laboratories").contentType(MediaType.APPLICATION_JSON).content(VALID_BODY))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"7-0\""))
+                .andExpect(jsonPath("$.id").value(7));
+    }
+
+    @Test
+    void createWithIdempotencyKeyAlsoAnswersSynchronously() throws Exception {
+        when(service.saveLaboratory(any())).thenAnswer(invocation -> saved(invocation.getArgument(0), 7, 0));
+
+        mockMvc.perform(post("/api/laboratories").contentType(MediaType.APPLICATION_JSON).content(VALID_BODY)
+                        .header("Idempotency-Key", "clave-1"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/laboratories").contentType(MediaType.APPLICATION_JSON).content(VALID_BODY)
+                        .header("Idempotency-Key", "clave-1"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+    }
+
+    @Test
+    void invalidBodiesAreRejectedBeforeReachingTheService() throws Exception {
+        String invalid = "{\"name\": \"ab\", \"address\": \"\", \"phone\": \"x\", \"email\": \"no\"}";
+
+        mockMvc.perform(post("/api/laboratories").contentType(MediaType.APPLICATION_JSON).content(invalid))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/laboratories/7").contentType(MediaType.APPLICATION_JSON).content(invalid))
+                .andExpect(status().isBadRequest());
+        verify(service, never()).saveLaboratory(any());
+        verify(service, never()).updateLaboratory(anyLong(), any());
+    }
+
+    @Test
+    void updateAnswersSynchronouslyWithoutWriteBehind() throws Exception {
+        when(service.updateLaboratory(anyLong(), any()))
+                .thenAnswer(invocation -> saved(invocation.getArgument(1), invocation.getArgument(0), 3));
+
+        mockMvc.perform(put("/api/laboratories/7").contentType(MediaType.APPLICATION_JSON).content(VALID_BODY))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"7-3\""));
+    }
+
+    @Test
+    void entityETagDependsOnFormatAndNormalizedFields() throws Exception {
+        when(service.getLaboratoryById(7L)).thenReturn(Optional.of(saved(new Laboratory(), 7, 3)));
+
+        mockMvc.perform(get("/api/laboratories/7"))
+                .andExpect(header().string("ETag", "\"7-3\""));
+        mockMvc.perform(get("/api/laboratories/7").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"7-3;cbor\""));
+        mockMvc.perform(get("/api/laboratories/7").param("fields", "phone, name"))
+                .andExpect(header().string("ETag", "\"7-3;fields=id,name,phone\""));
+        mockMvc.perform(get("/api/laboratories/7").param("fields", "name,phone,id"))
+                .andExpect(header().string("ETag", "\"7-3;fields=id,name,phone\""));
+        mockMvc.perform(get("/api/laboratories/7").header("If-None-Match", "\"7-3\"")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/laboratories/7").header("If-None-Match", "\"7-3;cbor\"")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void ifMatchAcceptsAnyRepresentationOfTheVersion() throws Exception {
+        when(service.patchLaboratory(eq(7L), eq(3L), any())).thenReturn(saved(new Laboratory(), 7, 4));
+
+        mockMvc.perform(patch("/api/laboratories/7").contentType(MediaType.APPLICATION_JSON).content("{}")
+                        .header("If-Match", "\"7-3;cbor;fields=id,name\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"7-4\""));
+    }
+
+    @Test
+    void expiredSyncTokenAnswersGone() throws Exception {
+        when(service.sync("viejo", null)).thenThrow(new SyncTokenExpiredException("Token vencido"));
+
+        mockMvc.perform(get("/api/laboratories/sync").param("token", "viejo"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.error").value("Token vencido"));
+    }
+
+    @Test
+    void snapshotIsNotFoundWhenDisabledAndNeverReadsTheWholeTable() throws Exception {
+        mockMvc.perform(get("/api/laboratories/snapshot"))
+                .andExpect(status().isNotFound());
+
+        verify(service, never()).getAllLaboratories();
+    }
+
+    @Test
+    void snapshotIsUnavailableUntilTheFirstOneIsBuilt() throws Exception {
+        MockMvc withSnapshot = mockMvc(mock(LaboratorySnapshot.class));
+
+        withSnapshot.perform(get("/api/laboratories/snapshot"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+
+        verify(service, never()).getAllLaboratories();
+    }
+
+    @Test
+    void snapshotETagDependsOnTheContentCoding() throws Exception {
+        when(service.exportLaboratories(any())).thenAnswer(invocation -> {
+            Consumer<Laboratory> consumer = invocation.getArgument(0);
+            consumer.accept(saved(new Laboratory(), 1, 0));
+            return 1L;
+        });
+        LaboratorySnapshot snapshot = new LaboratorySnapshot(service, new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry(), false, 0, 1000, 1000);
+        snapshot.onApplicationReady();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (snapshot.current() == null && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        MockMvc withSnapshot = mockMvc(snapshot);
+
+        String identity = withSnapshot.perform(get("/api/laboratories/snapshot"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse().getHeader("ETag");
+        String gzip = withSnapshot.perform(get("/api/laboratories/snapshot").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertThat(identity).isNotNull().isNotEqualTo(gzip);
+        withSnapshot.perform(get("/api/laboratories/snapshot").header("If-None-Match", gzip))
+                .andExpect(status().isOk());
+        withSnapshot.perform(get("/api/laboratories/snapshot").header("Accept-Encoding", "gzip")
+                .header("If-None-Match", gzip))
+                .andExpect(status().isNotModified());
+    }
+
+    @SuppressWarnings("unchecked")
+    private MockMvc mockMvc(LaboratorySnapshot snapshot) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<LaboratorySnapshot> snapshotProvider = mock(ObjectProvider.class);
+        when(snapshotProvider.getIfAvailable()).thenReturn(snapshot);
+        LaboratoryController controller = new LaboratoryController(service, mock(LaboratoryImportService.class),
+                new LaboratoryChangeTracker(0), mock(LaboratoryChangeFeed.class), mock(ObjectProvider.class),
+                new IdempotencyKeyStore(meterRegistry, 100, 60), snapshotProvider, new ObjectMapper());
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        return MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler(meterRegistry))
+                .setValidator(validator)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(),
+                        new MappingJackson2CborHttpMessageConverter())
+                .build();
+    }
+
+    private static Laboratory saved(Laboratory laboratory, long id, long version) {
+        laboratory.setId(id);
+        laboratory.setVersion(version);
+        return laboratory;
+    }
+}
@@ -0,0 +1,39 @@
+package com.exp2.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.exp2.model.Laboratory;
+import org.junit.jupiter.api.Test;
+
+class LaboratoryChangeTrackerTest {
+
+    @Test
+    void collectionETagChangesWithEveryChangeAndResource() {
+        LaboratoryChangeTracker tracker = new LaboratoryChangeTracker(0);
+        String before = tracker.collectionETag("/api/laboratories application/json");
+
+        assertThat(tracker.collectionETag("/api/laboratories application/json")).isEqualTo(before);
+        assertThat(tracker.collectionETag("/api/laboratories application/cbor")).isNotEqualTo(before);
+        tracker.onLaboratoryChanged(LaboratoryChangedEvent.created(new Laboratory()));
+        assertThat(tracker.collectionETag("/api/laboratories application/json")).isNotEqualTo(before);
+    }
+
+    @Test
+    void reportsChangesWithinTheReplicaLag() {
+        LaboratoryChangeTracker tracker = new LaboratoryChangeTracker(60_000);
+        assertThat(tracker.changedWithinReplicaLag()).isFalse();
+
+        tracker.onLaboratoryChanged(LaboratoryChangedEvent.created(new Laboratory()));
+
+        assertThat(tracker.changedWithinReplicaLag()).isTrue();
+    }
+
+    @Test
+    void neverReportsLagWithoutReplica() {
+        LaboratoryChangeTracker tracker = new LaboratoryChangeTracker(0);
+
+        tracker.onLaboratoryChanged(LaboratoryChangedEvent.created(new Laboratory()));
+
+        assertThat(tracker.changedWithinReplicaLag()).isFalse();
+    }
+}
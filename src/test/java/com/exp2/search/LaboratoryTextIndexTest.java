@@ -0,0 +1,98 @@
+package com.exp2.search;
+
+import static com.exp2.LaboratoryFixtures.laboratory;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.exp2.event.LaboratoryChangedEvent;
+import com.exp2.model.Laboratory;
+import com.exp2.repository.LaboratoryRepository;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class LaboratoryTextIndexTest {
+
+    private LaboratoryRepository repository;
+    private LaboratoryTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(LaboratoryRepository.class);
+        index = new LaboratoryTextIndex(repository, mock(EntityManager.class), mock(PlatformTransactionManager.class),
+                3.0f, 2.0f, 1.0f);
+    }
+
+    @Test
+    void searchIsEmptyUntilLoaded() {
+        assertThat(index.search("sangre", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksNameAboveSpecialtyAboveAddress() {
+        load(laboratory(1, "Centro Norte", "Genética", "Calle Sangre 1"),
+                laboratory(2, "Laboratorio Sangre", "Genética", "Av. Sur 2"),
+                laboratory(3, "Centro Sur", "Sangre", "Av. Norte 3"),
+                laboratory(4, "Otro", "Otro", "Otra 4"));
+
+        LaboratoryTextIndex.RankedIds ranked = index.search("sangre", 10).orElseThrow();
+
+        assertThat(ids(ranked)).containsExactly(2L, 3L, 1L);
+        assertThat(ranked.total()).isEqualTo(3);
+    }
+
+    @Test
+    void ignoresAccentsAndCase() {
+        load(laboratory(1, "Bioquímica Central", "Química", "Calle 1"));
+
+        assertThat(ids(index.search("BIOQUIMICA", 10).orElseThrow())).containsExactly(1L);
+        assertThat(ids(index.search("quimica", 10).orElseThrow())).containsExactly(1L);
+    }
+
+    @Test
+    void rarerTermsWeighMoreAndTiesPreferLowerId() {
+        load(laboratory(5, "Alfa Común", "Xx", "Yy"),
+                laboratory(6, "Beta Común", "Xx", "Yy"),
+                laboratory(7, "Gama Común", "Xx", "Yy"));
+
+        assertThat(ids(index.search("común", 10).orElseThrow())).containsExactly(5L, 6L, 7L);
+        assertThat(ids(index.search("común gama", 10).orElseThrow())).startsWith(7L);
+    }
+
+    @Test
+    void keepsOnlyTopKButCountsAllMatches() {
+        load(laboratory(1, "Lab Uno", "Xx", "Yy"), laboratory(2, "Lab Dos", "Xx", "Yy"),
+                laboratory(3, "Lab Tres", "Xx", "Yy"));
+
+        LaboratoryTextIndex.RankedIds ranked = index.search("lab", 2).orElseThrow();
+
+        assertThat(ids(ranked)).containsExactly(1L, 2L);
+        assertThat(ranked.total()).isEqualTo(3);
+        assertThat(index.search("lab", 0).orElseThrow().hits()).isEmpty();
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        load(laboratory(1, "Laboratorio Antiguo", "Xx", "Yy"));
+
+        index.onLaboratoryChanged(LaboratoryChangedEvent.updated(null, laboratory(1, "Laboratorio Nuevo", "Xx", "Yy")));
+        assertThat(index.search("antiguo", 10).orElseThrow().total()).isZero();
+        assertThat(ids(index.search("nuevo", 10).orElseThrow())).containsExactly(1L);
+
+        index.onLaboratoryChanged(LaboratoryChangedEvent.deleted(laboratory(1, "Laboratorio Nuevo", "Xx", "Yy")));
+        assertThat(index.search("nuevo", 10).orElseThrow().total()).isZero();
+    }
+
+    private void load(Laboratory... laboratories) {
+        when(repository.streamAllOrderedById()).thenReturn(Stream.of(laboratories));
+        index.load();
+    }
+
+    private static List<Long> ids(LaboratoryTextIndex.RankedIds ranked) {
+        return ranked.hits().stream().map(LaboratoryTextIndex.ScoredId::id).toList();
+    }
+}
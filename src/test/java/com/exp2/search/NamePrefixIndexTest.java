@@ -0,0 +1,118 @@
+package com.exp2.search;
+
+import static com.exp2.LaboratoryFixtures.laboratory;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.exp2.dto.LaboratoryNameView;
+import com.exp2.event.LaboratoryChangedEvent;
+import com.exp2.repository.LaboratoryRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class NamePrefixIndexTest {
+
+    private final LaboratoryRepository repository = mock(LaboratoryRepository.class);
+
+    @Test
+    void completeIsEmptyUntilLoaded() {
+        assertThat(index(1024).complete("LAB", 10)).isEmpty();
+    }
+
+    @Test
+    void returnsMatchesInAlphabeticalOrderIgnoringCase() {
+        NamePrefixIndex index = index(1024);
+        load(index, new LaboratoryNameView(1, "Laboratorio Sur"), new LaboratoryNameView(2, "laboratorio Norte"),
+                new LaboratoryNameView(3, "Clínica Lab"), new LaboratoryNameView(4, "Lab"));
+
+        assertThat(index.complete("lab", 10)).contains(List.of(new LaboratoryNameView(4, "Lab"),
+                new LaboratoryNameView(2, "laboratorio Norte"), new LaboratoryNameView(1, "Laboratorio Sur")));
+        assertThat(index.complete("LABORATORIO", 1)).contains(List.of(new LaboratoryNameView(2, "laboratorio Norte")));
+        assertThat(index.complete("x", 10)).contains(List.of());
+    }
+
+    @Test
+    void mergesBaseAndDeltaAndHidesRemovedEntries() {
+        NamePrefixIndex index = index(1024);
+        load(index, new LaboratoryNameView(1, "Lab B"), new LaboratoryNameView(2, "Lab D"));
+
+        index.onLaboratoryChanged(LaboratoryChangedEvent.created(laboratory(3, "Lab A")));
+        index.onLaboratoryChanged(LaboratoryChangedEvent.created(laboratory(4, "Lab C")));
+        index.onLaboratoryChanged(LaboratoryChangedEvent.deleted(laboratory(2, "Lab D")));
+        index.onLaboratoryChanged(LaboratoryChangedEvent.updated(null, laboratory(1, "Otro")));
+
+        assertThat(index.complete("lab", 10)).contains(List.of(new LaboratoryNameView(3, "Lab A"),
+                new LaboratoryNameView(4, "Lab C")));
+        assertThat(index.complete("otro", 10)).contains(List.of(new LaboratoryNameView(1, "Otro")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 3, 1024 })
+    void matchesNaiveModelUnderRandomChanges(int compactionThreshold) {
+        Random random = new Random(compactionThreshold);
+        Map<Long, String> model = new HashMap<>();
+        List<LaboratoryNameView> initial = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            String name = randomName(random);
+            model.put(id, name);
+            initial.add(new LaboratoryNameView(id, name));
+        }
+        NamePrefixIndex index = index(compactionThreshold);
+        load(index, initial.toArray(LaboratoryNameView[]::new));
+
+        for (int step = 0; step < 500; step++) {
+            long id = 1 + random.nextInt(80);
+            if (random.nextInt(4) == 0) {
+                if (model.remove(id) != null) {
+                    index.onLaboratoryChanged(LaboratoryChangedEvent.deleted(laboratory(id, "x")));
+                }
+            } else {
+                String name = randomName(random);
+                model.put(id, name);
+                index.onLaboratoryChanged(LaboratoryChangedEvent.updated(null, laboratory(id, name)));
+            }
+            String prefix = randomName(random).substring(0, random.nextInt(3));
+            assertThat(index.complete(prefix, 5)).contains(expected(model, prefix, 5));
+        }
+    }
+
+    private static List<LaboratoryNameView> expected(Map<Long, String> model, String prefix, int limit) {
+        String key = prefix.toUpperCase(Locale.ROOT);
+        return model.entrySet().stream()
+                .filter(entry -> entry.getValue().toUpperCase(Locale.ROOT).startsWith(key))
+                .sorted(Comparator.comparing((Map.Entry<Long, String> entry) -> entry.getValue().toUpperCase(Locale.ROOT))
+                        .thenComparing(Map.Entry::getKey))
+                .limit(limit)
+                .map(entry -> new LaboratoryNameView(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            char letter = (char) ('a' + random.nextInt(3));
+            name.append(random.nextBoolean() ? Character.toUpperCase(letter) : letter);
+        }
+        return name.toString();
+    }
+
+    private NamePrefixIndex index(int compactionThreshold) {
+        return new NamePrefixIndex(repository, mock(PlatformTransactionManager.class), compactionThreshold);
+    }
+
+    private void load(NamePrefixIndex index, LaboratoryNameView... names) {
+        when(repository.streamAllNames()).thenReturn(Stream.of(names));
+        index.load();
+    }
+}
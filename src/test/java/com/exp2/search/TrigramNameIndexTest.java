@@ -0,0 +1,106 @@
+package com.exp2.search;
+
+import static com.exp2.LaboratoryFixtures.laboratory;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.exp2.dto.LaboratoryNameView;
+import com.exp2.event.LaboratoryChangedEvent;
+import com.exp2.model.Laboratory;
+import com.exp2.repository.LaboratoryRepository;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class TrigramNameIndexTest {
+
+    private LaboratoryRepository repository;
+    private TrigramNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(LaboratoryRepository.class);
+        index = new TrigramNameIndex(repository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void searchIsEmptyUntilLoaded() {
+        assertThat(index.search("lab", 10)).isEmpty();
+    }
+
+    @Test
+    void findsSubstringsIgnoringCaseInIdOrder() {
+        load(new LaboratoryNameView(3, "Laboratorio Central"),
+                new LaboratoryNameView(1, "Clínica del Sur"),
+                new LaboratoryNameView(2, "Centro Médico Norte"));
+
+        assertThat(index.search("cent", 10)).contains(List.of(2L, 3L));
+        assertThat(index.search("SUR", 10)).contains(List.of(1L));
+        assertThat(index.search("oratorio c", 10)).contains(List.of(3L));
+        assertThat(index.search("inexistente", 10)).contains(List.of());
+    }
+
+    @Test
+    void trigramsMustAppearInOrderNotJustAnywhere() {
+        load(new LaboratoryNameView(1, "ABCXBCD"));
+
+        assertThat(index.search("ABCD", 10)).contains(List.of());
+        assertThat(index.search("XBCD", 10)).contains(List.of(1L));
+    }
+
+    @Test
+    void shortQueriesUseTheirOwnGrams() {
+        load(new LaboratoryNameView(1, "Alfa"), new LaboratoryNameView(2, "Beta"), new LaboratoryNameView(3, "Gama"));
+
+        assertThat(index.search("a", 10)).contains(List.of(1L, 2L, 3L));
+        assertThat(index.search("ta", 10)).contains(List.of(2L));
+        assertThat(index.search("", 2)).contains(List.of(1L, 2L));
+    }
+
+    @Test
+    void appliesLimitInIdOrder() {
+        load(new LaboratoryNameView(9, "Lab Nueve"), new LaboratoryNameView(4, "Lab Cuatro"),
+                new LaboratoryNameView(7, "Lab Siete"));
+
+        assertThat(index.search("lab", 2)).contains(List.of(4L, 7L));
+    }
+
+    @Test
+    void stopsAtTheLimitForCommonSubstrings() {
+        LaboratoryNameView[] names = new LaboratoryNameView[10_000];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = new LaboratoryNameView(names.length - i, "Laboratorio " + (names.length - i));
+        }
+        load(names);
+
+        assertThat(index.search("o", 3)).contains(List.of(1L, 2L, 3L));
+        assertThat(index.search("labor", 3)).contains(List.of(1L, 2L, 3L));
+        assertThat(index.search("rio 99", 3)).contains(List.of(99L, 990L, 991L));
+        assertThat(index.search("99", 2)).contains(List.of(99L, 199L));
+    }
+
+    @Test
+    void followsRenamesAndDeletes() {
+        load(new LaboratoryNameView(1, "Laboratorio Antiguo"));
+
+        Laboratory previous = laboratory(1, "Laboratorio Antiguo");
+        index.onLaboratoryChanged(LaboratoryChangedEvent.updated(previous, laboratory(1, "Laboratorio Nuevo")));
+        assertThat(index.search("antiguo", 10)).contains(List.of());
+        assertThat(index.search("nuevo", 10)).contains(List.of(1L));
+
+        index.onLaboratoryChanged(LaboratoryChangedEvent.created(laboratory(2, "Otro Nuevo")));
+        assertThat(index.search("nuevo", 10)).contains(List.of(1L, 2L));
+
+        index.onLaboratoryChanged(LaboratoryChangedEvent.deleted(laboratory(1, "Laboratorio Nuevo")));
+        assertThat(index.search("nuevo", 10)).contains(List.of(2L));
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private void load(LaboratoryNameView... names) {
+        when(repository.streamAllNames()).thenReturn(Stream.of(names));
+        index.load();
+    }
+}
@@ -0,0 +1,106 @@
+package com.exp2.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsBeyondTheLimitUntilARequestIsReleased() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, true, 2, 1, 10, 60_000);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(inflight()).isEqualTo(2);
+
+        limiter.release(FAST);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void initialLimitIsClampedToTheBounds() {
+        new AdaptiveConcurrencyLimiter(meterRegistry, true, 1000, 5, 50, 100);
+
+        assertThat(limit()).isEqualTo(50);
+    }
+
+    @Test
+    void limitDropsWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, true, 20, 1, 100, 0);
+        requests(limiter, 1, FAST);
+        assertThat(limit()).isEqualTo(20);
+
+        requests(limiter, 1, SLOW);
+
+        assertThat(limit()).isLessThan(20);
+    }
+
+    @Test
+    void limitGrowsOnlyWhileItIsUsed() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, true, 20, 1, 100, 0);
+        requests(limiter, 1, FAST);
+        requests(limiter, 1, FAST);
+        assertThat(limit()).isEqualTo(20);
+
+        for (int i = 0; i < 15; i++) {
+            limiter.tryAcquire();
+        }
+        limiter.release(FAST);
+
+        assertThat(limit()).isGreaterThan(20);
+    }
+
+    @Test
+    void limitDropsWhileRequestsWaitForConnections() {
+        AtomicInteger pending = new AtomicInteger(3);
+        Gauge.builder("hikaricp.connections.pending", pending, AtomicInteger::get).register(meterRegistry);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, true, 20, 1, 100, 0);
+
+        requests(limiter, 1, FAST);
+        requests(limiter, 1, FAST);
+
+        assertThat(limit()).isLessThan(20);
+    }
+
+    @Test
+    void limitNeverFallsBelowTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, true, 20, 10, 100, 0);
+        requests(limiter, 1, FAST);
+
+        long rtt = SLOW;
+        for (int i = 0; i < 30; i++) {
+            requests(limiter, 1, rtt);
+            rtt = rtt * 3 / 2;
+        }
+
+        assertThat(limit()).isEqualTo(10);
+    }
+
+    private static void requests(AdaptiveConcurrencyLimiter limiter, int count, long rttNanos) {
+        for (int i = 0; i < count; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(rttNanos);
+        }
+    }
+
+    private double limit() {
+        return meterRegistry.get("laboratory.concurrency.limit").gauge().value();
+    }
+
+    private double inflight() {
+        return meterRegistry.get("laboratory.concurrency.inflight").gauge().value();
+    }
+}
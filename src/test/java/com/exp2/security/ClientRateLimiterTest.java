@@ -0,0 +1,63 @@
+package com.exp2.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ClientRateLimiterTest {
+
+    @Test
+    void rejectsInvalidRateOrBurst() {
+        assertThatThrownBy(() -> new ClientRateLimiter(true, 0, 10, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ClientRateLimiter(true, 10, 0, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void admitsExactlyTheBurstAndThenReportsTheWait() {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 1, 3, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("cliente")).isZero();
+        }
+        long waitNanos = limiter.tryAcquire("cliente");
+
+        assertThat(waitNanos).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumeTokens() {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 1, 1, 100);
+        assertThat(limiter.tryAcquire("cliente")).isZero();
+
+        long first = limiter.tryAcquire("cliente");
+        long second = limiter.tryAcquire("cliente");
+
+        assertThat(second).isPositive().isLessThanOrEqualTo(first);
+    }
+
+    @Test
+    void clientsHaveIndependentBuckets() {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 1, 1, 100);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() throws InterruptedException {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 20, 1, 100);
+        assertThat(limiter.tryAcquire("cliente")).isZero();
+        long waitNanos = limiter.tryAcquire("cliente");
+        assertThat(waitNanos).isPositive().isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+
+        TimeUnit.NANOSECONDS.sleep(waitNanos + TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(limiter.tryAcquire("cliente")).isZero();
+        assertThat(limiter.tryAcquire("cliente")).isPositive();
+    }
+}
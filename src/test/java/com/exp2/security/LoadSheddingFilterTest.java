@@ -0,0 +1,84 @@
+package com.exp2.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class LoadSheddingFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void rateLimitedRequestsGetTheApiErrorBodyAndAreCounted() throws Exception {
+        LoadSheddingFilter filter = filter(new ClientRateLimiter(true, 1, 1, 100), disabledConcurrencyLimiter());
+        assertThat(perform(filter, "/api/laboratories").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse response = perform(filter, "/api/laboratories");
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(body(response)).containsKeys("status", "timestamp", "error")
+                .containsEntry("status", 429)
+                .containsEntry("path", "/api/laboratories");
+        assertThat(errors("rate_limited")).isEqualTo(1);
+    }
+
+    @Test
+    void overloadedRequestsGetTheApiErrorBodyAndAreCounted() throws Exception {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(meterRegistry, true, 1, 1, 1,
+                60_000);
+        LoadSheddingFilter filter = filter(new ClientRateLimiter(false, 1, 1, 100), concurrencyLimiter);
+        concurrencyLimiter.tryAcquire();
+
+        MockHttpServletResponse response = perform(filter, "/api/laboratories");
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("7");
+        assertThat(body(response)).containsEntry("status", 503).containsEntry("path", "/api/laboratories");
+        assertThat(errors("overloaded")).isEqualTo(1);
+    }
+
+    @Test
+    void unlimitedPathsAndNonApiRequestsSkipTheConcurrencyLimit() throws Exception {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(meterRegistry, true, 1, 1, 1,
+                60_000);
+        LoadSheddingFilter filter = filter(new ClientRateLimiter(false, 1, 1, 100), concurrencyLimiter);
+        concurrencyLimiter.tryAcquire();
+
+        assertThat(perform(filter, "/api/laboratories/export").getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "/actuator/health").getStatus()).isEqualTo(200);
+        assertThat(errors("overloaded")).isZero();
+    }
+
+    private LoadSheddingFilter filter(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        return new LoadSheddingFilter(rateLimiter, concurrencyLimiter, objectMapper, meterRegistry, "",
+                List.of("/api/laboratories/export"), 7);
+    }
+
+    private AdaptiveConcurrencyLimiter disabledConcurrencyLimiter() {
+        return new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), false, 10, 1, 10, 100);
+    }
+
+    private static MockHttpServletResponse perform(LoadSheddingFilter filter, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", uri), response, new MockFilterChain());
+        return response;
+    }
+
+    private Map<String, Object> body(MockHttpServletResponse response) throws Exception {
+        return objectMapper.readValue(response.getContentAsByteArray(), Map.class);
+    }
+
+    private double errors(String type) {
+        return meterRegistry.get("laboratory.api.errors").tag("type", type).counter().count();
+    }
+}
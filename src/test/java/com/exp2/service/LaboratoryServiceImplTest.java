@@ -0,0 +1,231 @@
+package com.exp2.service;
+
+import static com.exp2.LaboratoryFixtures.laboratory;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.exp2.LaboratoryFixtures;
+import com.exp2.cache.LaboratoryCache;
+import com.exp2.cache.LaboratoryNameIndex;
+import com.exp2.dto.LaboratoryBatchResult;
+import com.exp2.dto.LaboratorySyncPage;
+import com.exp2.exception.SyncTokenExpiredException;
+import com.exp2.model.Laboratory;
+import com.exp2.model.LaboratoryTombstone;
+import com.exp2.repository.LaboratoryRepository;
+import com.exp2.repository.LaboratoryTombstoneRepository;
+import com.exp2.search.LaboratoryTextIndex;
+import com.exp2.search.NamePrefixIndex;
+import com.exp2.search.TrigramNameIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+class LaboratoryServiceImplTest {
+
+    private static final int CHUNK_SIZE = 3;
+    private static final int MAX_BATCH_IDS = 10;
+
+    private LaboratoryRepository repository;
+    private LaboratoryTombstoneRepository tombstoneRepository;
+    private LaboratoryCache cache;
+    private LaboratoryNameIndex nameIndex;
+    private TrigramNameIndex trigramIndex;
+    private DataSource dataSource;
+    private LaboratoryServiceImpl service;
+    private final List<List<Long>> inQueries = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        repository = mock(LaboratoryRepository.class);
+        tombstoneRepository = mock(LaboratoryTombstoneRepository.class);
+        nameIndex = mock(LaboratoryNameIndex.class);
+        trigramIndex = mock(TrigramNameIndex.class);
+        dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        cache = new LaboratoryCache(new SimpleMeterRegistry(), true, 100, 300);
+        service = new LaboratoryServiceImpl(repository, tombstoneRepository, mock(EntityManager.class), cache,
+                nameIndex, trigramIndex, mock(NamePrefixIndex.class),
+                mock(LaboratoryTextIndex.class), mock(ApplicationEventPublisher.class), transactionManager,
+                20, 100, 10, 50, 1000, CHUNK_SIZE, MAX_BATCH_IDS, 500, 1000, 5000, 30);
+        when(repository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Long> ids = new ArrayList<>();
+            invocation.<Iterable<Long>>getArgument(0).forEach(ids::add);
+            inQueries.add(ids);
+            return ids.stream().filter(id -> id <= 100).map(LaboratoryFixtures::laboratory).toList();
+        });
+    }
+
+    @Test
+    void batchLookupRejectsInvalidIdLists() {
+        assertThatThrownBy(() -> service.getLaboratoriesByIds(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.getLaboratoriesByIds(Arrays.asList(1L, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        List<Long> tooMany = LongStream.rangeClosed(1, MAX_BATCH_IDS + 1).boxed().toList();
+        assertThatThrownBy(() -> service.getLaboratoriesByIds(tooMany))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(repository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void batchLookupDeduplicatesKeepsOrderAndReportsMissingIds() {
+        LaboratoryBatchResult result = service.getLaboratoriesByIds(List.of(5L, 200L, 1L, 5L, 300L));
+
+        assertThat(result.found()).containsOnlyKeys(5L, 1L);
+        assertThat(result.found().keySet()).containsExactly(5L, 1L);
+        assertThat(result.missing()).containsExactly(200L, 300L);
+    }
+
+    @Test
+    void batchLookupSplitsInListsByChunkSize() {
+        service.getLaboratoriesByIds(LongStream.rangeClosed(1, 7).boxed().toList());
+
+        assertThat(inQueries).hasSize(3).allSatisfy(chunk -> assertThat(chunk).hasSizeLessThanOrEqualTo(CHUNK_SIZE));
+        assertThat(inQueries.stream().flatMap(List::stream)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    }
+
+    @Test
+    void batchLookupOnlyQueriesIdsMissingFromTheCache() {
+        service.getLaboratoriesByIds(List.of(1L, 2L));
+        inQueries.clear();
+
+        LaboratoryBatchResult result = service.getLaboratoriesByIds(List.of(1L, 2L, 3L));
+
+        assertThat(result.found()).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(inQueries).containsExactly(List.of(3L));
+    }
+
+    @Test
+    void cacheAndIndexHitsDoNotTakeAConnection() throws SQLException {
+        when(repository.findById(1L)).thenReturn(Optional.of(laboratory(1)));
+        when(trigramIndex.search("Lab", Integer.MAX_VALUE)).thenReturn(Optional.of(List.of(1L, 2L)));
+
+        service.getLaboratoryById(1L);
+        service.getLaboratoriesByIds(List.of(2L));
+        verify(dataSource, times(2)).getConnection();
+
+        assertThat(service.getLaboratoryById(1L)).isPresent();
+        assertThat(service.getLaboratoriesByIds(List.of(1L, 2L)).found()).containsOnlyKeys(1L, 2L);
+        assertThat(service.findByName("Lab", null)).extracting(Laboratory::getId).containsExactly(1L, 2L);
+        verify(dataSource, times(2)).getConnection();
+    }
+
+    @Test
+    void coalescedLoadsTakeOneConnectionForAllWaitingRequests() throws Exception {
+        int requests = 4;
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findById(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(laboratory(1));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        List<CompletableFuture<Optional<Laboratory>>> lookups = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            lookups.add(CompletableFuture.supplyAsync(() -> service.getLaboratoryById(1L), executor));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.stats().regions().get("byId").coalesced() < requests - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        verify(dataSource, times(1)).getConnection();
+        release.countDown();
+
+        for (CompletableFuture<Optional<Laboratory>> lookup : lookups) {
+            assertThat(lookup.get(5, TimeUnit.SECONDS)).isPresent();
+        }
+        assertThat(cache.stats().regions().get("byId").coalesced()).isEqualTo(requests - 1);
+        verify(repository, times(1)).findById(1L);
+        verify(dataSource, times(1)).getConnection();
+        executor.shutdown();
+    }
+
+    @Test
+    void syncRejectsTamperedTokens() {
+        assertThatThrownBy(() -> service.sync("no es base64!", null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.sync(token("2024-01-01T00:00:00Z|1"), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.sync(token("ayer|1|2024-01-01T00:00:00Z|2"), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.sync(token("2024-01-01T00:00:00Z|uno|2024-01-01T00:00:00Z|2"), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(repository, never()).findModifiedSince(any(), anyLong(), any(), any());
+    }
+
+    @Test
+    void syncRejectsTokensOlderThanTheTombstoneRetention() {
+        Instant expired = Instant.now().minus(Duration.ofDays(31));
+        Instant retained = Instant.now().minus(Duration.ofDays(29));
+
+        assertThatThrownBy(() -> service.sync(token("1970-01-01T00:00:00Z|0|" + expired + "|5"), null))
+                .isInstanceOf(SyncTokenExpiredException.class);
+        verify(repository, never()).findModifiedSince(any(), anyLong(), any(), any());
+
+        service.sync(token("1970-01-01T00:00:00Z|0|" + retained + "|5"), null);
+        verify(tombstoneRepository).findDeletedSince(eq(retained), eq(5L), any(), any());
+    }
+
+    @Test
+    void syncTokenResumesAfterTheLastReturnedRows() {
+        Instant changedAt = Instant.parse("2024-03-01T10:00:00Z");
+        Instant deletedAt = Instant.now().minus(Duration.ofDays(1));
+        when(repository.findModifiedSince(any(), anyLong(), any(), any())).thenReturn(List.of(
+                updatedAt(laboratory(4), changedAt), updatedAt(laboratory(9), changedAt), laboratory(12)));
+        when(tombstoneRepository.findDeletedSince(any(), anyLong(), any(), any())).thenReturn(List.of(
+                new LaboratoryTombstone(3, deletedAt), new LaboratoryTombstone(8, deletedAt),
+                new LaboratoryTombstone(11, deletedAt)));
+
+        LaboratorySyncPage first = service.sync(null, 2);
+
+        assertThat(first.hasMore()).isTrue();
+        assertThat(first.changed()).extracting(Laboratory::getId).containsExactly(4L, 9L);
+        assertThat(first.deleted()).containsExactly(3L, 8L);
+        verify(repository).findModifiedSince(eq(Instant.EPOCH), eq(0L), any(), eq(Limit.of(3)));
+
+        service.sync(first.nextToken(), 2);
+
+        verify(repository).findModifiedSince(eq(changedAt), eq(9L), any(), eq(Limit.of(3)));
+        verify(tombstoneRepository).findDeletedSince(eq(deletedAt), eq(8L), any(), eq(Limit.of(3)));
+    }
+
+    private static String token(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Laboratory updatedAt(Laboratory laboratory, Instant updatedAt) {
+        laboratory.setUpdatedAt(updatedAt);
+        return laboratory;
+    }
+}
@@ -0,0 +1,90 @@
+package com.exp2.service;
+
+import static com.exp2.LaboratoryFixtures.laboratory;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.exp2.cache.LaboratoryNameIndex;
+import com.exp2.exception.ServiceUnavailableException;
+import com.exp2.model.Laboratory;
+import com.exp2.repository.LaboratoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class LaboratoryWriteBehindServiceImplTest {
+
+    private LaboratoryWriteBehindServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        service = new LaboratoryWriteBehindServiceImpl(mock(LaboratoryRepository.class),
+                mock(LaboratoryNameIndex.class), entityManager, mock(PlatformTransactionManager.class),
+                mock(ApplicationEventPublisher.class), new SimpleMeterRegistry(), 64, 8, 1);
+        service.start();
+    }
+
+    @Test
+    void writesAfterStopAreRejected() throws Exception {
+        service.stop();
+
+        assertThat(service.saveLaboratory(laboratory(0L, "Laboratorio Central")))
+                .failsWithin(0, TimeUnit.SECONDS)
+                .withThrowableOfType(Exception.class)
+                .withCauseInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    void everyWriteCompletesWhenStoppingUnderLoad() throws Exception {
+        int producers = 4;
+        CountDownLatch started = new CountDownLatch(producers);
+        List<Thread> threads = new ArrayList<>();
+        List<CompletableFuture<Laboratory>> results = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 2_000; i++) {
+                    CompletableFuture<Laboratory> result = service.saveLaboratory(
+                            laboratory(0L, "Laboratorio " + producer + "-" + i));
+                    synchronized (results) {
+                        results.add(result);
+                    }
+                    Thread.yield();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        service.stop();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        synchronized (results) {
+            assertThat(results).hasSize(producers * 2_000);
+            for (CompletableFuture<Laboratory> result : results) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException ex) {
+                    assertThat(ex.getCause()).isInstanceOf(ServiceUnavailableException.class);
+                }
+            }
+        }
+    }
+}